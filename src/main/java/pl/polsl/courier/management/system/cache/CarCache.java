@@ -0,0 +1,85 @@
+package pl.polsl.courier.management.system.cache;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.annotation.PostConstruct;
+
+import pl.polsl.courier.management.system.dto.CacheStatsDTO;
+import pl.polsl.courier.management.system.dto.CarDTO;
+import pl.polsl.courier.management.system.repository.CarRepository;
+
+/**
+ * Read-through cache of cars by registration number. Size and expiry come from a Caffeine
+ * spec in {@code courier.cache.car.spec}; unknown registration numbers are not cached.
+ * Size, hits, misses and evictions are published as {@code cache.*} meters.
+ *
+ * <p>Entries are futures: the first caller to miss publishes one and runs the query itself,
+ * outside the cache's map-bin monitor, so a virtual thread waiting for a connection is not
+ * pinned. Concurrent callers wait on the same future, and an eviction while it is loading
+ * drops it instead of letting the stale row in.
+ */
+@Component
+public class CarCache {
+
+    public static final String NAME = "carsByRegistration";
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${courier.cache.car.spec:maximumSize=10000,expireAfterWrite=10m}")
+    private String spec;
+
+    private AsyncCache<String, CarDTO> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.from(spec).recordStats().buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public Optional<CarDTO> findByRegistrationNumber(String registrationNumber) {
+        CompletableFuture<CarDTO> car = cache.getIfPresent(registrationNumber);
+        if (car == null) {
+            CompletableFuture<CarDTO> loading = new CompletableFuture<>();
+            car = cache.asMap().putIfAbsent(registrationNumber, loading);
+            if (car == null) {
+                car = loading;
+                try {
+                    loading.complete(carRepo.findByRegistrationNumber(registrationNumber).map(CarDTO::new).orElse(null));
+                } catch (RuntimeException e) {
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return Optional.ofNullable(car.join());
+    }
+
+    public void evict(String registrationNumber) {
+        if (registrationNumber != null) {
+            cache.synchronous().invalidate(registrationNumber);
+        }
+    }
+
+    public void clear() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public CacheStatsDTO stats() {
+        return new CacheStatsDTO(NAME, cache.synchronous().estimatedSize(), cache.synchronous().stats());
+    }
+}
@@ -0,0 +1,88 @@
+package pl.polsl.courier.management.system.cache;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.annotation.PostConstruct;
+
+import pl.polsl.courier.management.system.dto.CacheStatsDTO;
+import pl.polsl.courier.management.system.dto.DispatchSummaryDTO;
+import pl.polsl.courier.management.system.report.DispatchSummaryCalculator;
+import pl.polsl.courier.management.system.search.AfterCommit;
+
+/**
+ * Read-through cache of dispatch summaries by schedule date, loaded like {@link CarCache}.
+ * Every change to a route or parcel of a date evicts that date once the change commits, so a
+ * summary being computed meanwhile is dropped rather than kept; changes to cars or clients,
+ * which may touch any date, clear the whole cache. The Caffeine spec in
+ * {@code courier.cache.dispatch-summary.spec} only bounds how many days are kept.
+ */
+@Component
+public class DispatchSummaryCache {
+
+    public static final String NAME = "dispatchSummaries";
+
+    @Autowired
+    private DispatchSummaryCalculator calculator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${courier.cache.dispatch-summary.spec:maximumSize=366}")
+    private String spec;
+
+    private AsyncCache<LocalDate, DispatchSummaryDTO> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.from(spec).recordStats().buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public DispatchSummaryDTO get(LocalDate date) {
+        CompletableFuture<DispatchSummaryDTO> summary = cache.getIfPresent(date);
+        if (summary == null) {
+            CompletableFuture<DispatchSummaryDTO> loading = new CompletableFuture<>();
+            summary = cache.asMap().putIfAbsent(date, loading);
+            if (summary == null) {
+                summary = loading;
+                try {
+                    loading.complete(calculator.summarize(date));
+                } catch (RuntimeException e) {
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return summary.join();
+    }
+
+    /** Evicts the dates, skipping nulls, once the current transaction commits. */
+    public void evict(LocalDate... dates) {
+        AfterCommit.run(() -> {
+            for (LocalDate date : dates) {
+                if (date != null) {
+                    cache.synchronous().invalidate(date);
+                }
+            }
+        });
+    }
+
+    public void clear() {
+        AfterCommit.run(() -> cache.synchronous().invalidateAll());
+    }
+
+    public CacheStatsDTO stats() {
+        return new CacheStatsDTO(NAME, cache.synchronous().estimatedSize(), cache.synchronous().stats());
+    }
+}
@@ -0,0 +1,36 @@
+package pl.polsl.courier.management.system.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * With {@code courier.threads.virtual=true}, Tomcat serves every request on a new virtual thread
+ * and {@code applicationTaskExecutor} (Spring MVC async and streaming responses) starts one per
+ * task. Nothing caps the number of requests in flight any more; the JDBC connection pool
+ * ({@code spring.datasource.hikari.maximum-pool-size}) does, with requests waiting up to
+ * {@code connection-timeout} for a connection. CPU-bound work (route optimization, car
+ * assignment) keeps its own platform-thread pools.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "courier.threads.virtual", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tomcat-handler-", 0).factory()));
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-", 0).factory()));
+    }
+}
@@ -1,9 +1,11 @@
 package pl.polsl.courier.management.system.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
@@ -20,9 +22,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import pl.polsl.courier.management.system.cache.CarCache;
+import pl.polsl.courier.management.system.cache.DispatchSummaryCache;
+import pl.polsl.courier.management.system.dto.CacheStatsDTO;
 import pl.polsl.courier.management.system.dto.CarDTO;
 import pl.polsl.courier.management.system.entity.Car;
+import pl.polsl.courier.management.system.metrics.SqlBudget;
 import pl.polsl.courier.management.system.repository.CarRepository;
+import pl.polsl.courier.management.system.search.FleetAvailabilityIndex;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
@@ -33,6 +40,14 @@ public class CarController {
 
     @Autowired
     private CarRepository carRepo;
+    @Autowired
+    private FleetAvailabilityIndex fleetIndex;
+    @Autowired
+    private CarCache carCache;
+    @Autowired
+    private DispatchSummaryCache dispatchSummaries;
+    @Autowired
+    private LinkFactory links;
 
     @Operation(summary = "Pobierz pojazd po numerze rejestracyjnym")
     @ApiResponses({
@@ -41,17 +56,17 @@ public class CarController {
         @ApiResponse(responseCode = "404", description = "Pojazd nie znaleziony")
     })
     @GetMapping("/{registrationNumber}")
+    @SqlBudget(1)
     public ResponseEntity<EntityModel<CarDTO>> getCarByRegistrationNumber(
             @PathVariable String registrationNumber) {
-        Car car = carRepo.findByRegistrationNumber(registrationNumber)
+        CarDTO dto = carCache.findByRegistrationNumber(registrationNumber)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                 "Car with registration number '" + registrationNumber + "' not found"));
 
-        CarDTO dto = new CarDTO(car);
         EntityModel<CarDTO> model = EntityModel.of(dto,
-            linkTo(methodOn(CarController.class).getCarByRegistrationNumber(registrationNumber)).withSelfRel(),
-            linkTo(methodOn(CarController.class).getAvailableCars()).withRel("available-cars"),
-            linkTo(methodOn(CarController.class).getOccupiedCars()).withRel("occupied-cars")
+            links.car(registrationNumber).withSelfRel(),
+            linkTo(methodOn(CarController.class).getAvailableCars(null)).withRel("available-cars").expand(),
+            linkTo(methodOn(CarController.class).getOccupiedCars(null)).withRel("occupied-cars").expand()
         );
 
         return ResponseEntity.ok(model);
@@ -73,12 +88,13 @@ public class CarController {
         car.setMileage(dto.getMileage());
         car.setCapacity(dto.getCapacity());
         Car saved = carRepo.save(car);
+        fleetIndex.putCar(saved);
+        carCache.evict(saved.getRegistrationNumber());
         CarDTO savedDto = new CarDTO(saved);
 
         return ResponseEntity.status(HttpStatus.CREATED)
             .body(EntityModel.of(savedDto,
-                linkTo(methodOn(CarController.class)
-                    .getCarByRegistrationNumber(savedDto.getRegistrationNumber())).withSelfRel()
+                links.car(savedDto.getRegistrationNumber()).withSelfRel()
             ));
     }
 
@@ -97,6 +113,8 @@ public class CarController {
                 "Cannot delete car assigned to routes");
         }
         carRepo.delete(car);
+        fleetIndex.removeCar(id);
+        carCache.evict(car.getRegistrationNumber());
         return ResponseEntity.noContent().build();
     }
 
@@ -114,47 +132,58 @@ public class CarController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                 "Registration number '" + dto.getRegistrationNumber() + "' is already in use");
         }
+        String previousRegistrationNumber = car.getRegistrationNumber();
         car.setBrand(dto.getBrand());
         car.setModel(dto.getModel());
         car.setRegistrationNumber(dto.getRegistrationNumber());
         car.setMileage(dto.getMileage());
         car.setCapacity(dto.getCapacity());
         Car updated = carRepo.save(car);
+        fleetIndex.putCar(updated);
+        carCache.evict(previousRegistrationNumber);
+        carCache.evict(updated.getRegistrationNumber());
+        // Capacity and registration number appear in the summary of every day the car drives.
+        dispatchSummaries.clear();
         CarDTO updatedDto = new CarDTO(updated);
 
         return ResponseEntity.ok(EntityModel.of(updatedDto,
-            linkTo(methodOn(CarController.class)
-                .getCarByRegistrationNumber(updatedDto.getRegistrationNumber())).withSelfRel()));
+            links.car(updatedDto.getRegistrationNumber()).withSelfRel()));
     }
 
-    @Operation(summary = "Lista dostępnych pojazdów")
+    @Operation(summary = "Lista dostępnych pojazdów (bez tras w danym dniu lub w ogóle)")
     @ApiResponse(responseCode = "200", description = "Zwraca listę dostępnych pojazdów",
         content = @Content(schema = @Schema(implementation = CarDTO.class)))
     @GetMapping("/available")
-    public ResponseEntity<CollectionModel<EntityModel<CarDTO>>> getAvailableCars() {
-        List<EntityModel<CarDTO>> cars = carRepo.findByRoutesIsEmpty().stream()
-            .map(car -> EntityModel.of(new CarDTO(car),
-                linkTo(methodOn(CarController.class)
-                    .getCarByRegistrationNumber(car.getRegistrationNumber())).withSelfRel()))
+    public ResponseEntity<CollectionModel<EntityModel<CarDTO>>> getAvailableCars(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<EntityModel<CarDTO>> cars = fleetIndex.available(date).stream()
+            .map(this::toModel)
             .collect(Collectors.toList());
 
         return ResponseEntity.ok(CollectionModel.of(cars,
-            linkTo(methodOn(CarController.class).getAvailableCars()).withSelfRel()));
+            linkTo(methodOn(CarController.class).getAvailableCars(date)).withSelfRel().expand()));
     }
 
-    @Operation(summary = "Lista zajętych pojazdów")
+    @Operation(summary = "Lista zajętych pojazdów (z trasą w danym dniu lub jakąkolwiek)")
     @ApiResponse(responseCode = "200", description = "Zwraca listę zajętych pojazdów",
         content = @Content(schema = @Schema(implementation = CarDTO.class)))
     @GetMapping("/occupied")
-    public ResponseEntity<CollectionModel<EntityModel<CarDTO>>> getOccupiedCars() {
-        List<EntityModel<CarDTO>> cars = carRepo.findByRoutesIsNotEmpty().stream()
-            .map(car -> EntityModel.of(new CarDTO(car),
-                linkTo(methodOn(CarController.class)
-                    .getCarByRegistrationNumber(car.getRegistrationNumber())).withSelfRel()))
+    public ResponseEntity<CollectionModel<EntityModel<CarDTO>>> getOccupiedCars(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<EntityModel<CarDTO>> cars = fleetIndex.occupied(date).stream()
+            .map(this::toModel)
             .collect(Collectors.toList());
 
         return ResponseEntity.ok(CollectionModel.of(cars,
-            linkTo(methodOn(CarController.class).getOccupiedCars()).withSelfRel()));
+            linkTo(methodOn(CarController.class).getOccupiedCars(date)).withSelfRel().expand()));
+    }
+
+    @Operation(summary = "Statystyki pamięci podręcznej pojazdów po numerze rejestracyjnym")
+    @ApiResponse(responseCode = "200", description = "Zwraca liczniki trafień i chybień",
+        content = @Content(schema = @Schema(implementation = CacheStatsDTO.class)))
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(carCache.stats());
     }
 
     @Operation(summary = "Lista pojazdów wg marki")
@@ -164,9 +193,7 @@ public class CarController {
     public ResponseEntity<CollectionModel<EntityModel<CarDTO>>> getCarsByBrand(
             @PathVariable String brand) {
         List<EntityModel<CarDTO>> cars = carRepo.findByBrand(brand).stream()
-            .map(car -> EntityModel.of(new CarDTO(car),
-                linkTo(methodOn(CarController.class)
-                    .getCarByRegistrationNumber(car.getRegistrationNumber())).withSelfRel()))
+            .map(car -> toModel(new CarDTO(car)))
             .collect(Collectors.toList());
 
         return ResponseEntity.ok(CollectionModel.of(cars,
@@ -180,9 +207,7 @@ public class CarController {
     public ResponseEntity<CollectionModel<EntityModel<CarDTO>>> getCarsByModel(
             @PathVariable String model) {
         List<EntityModel<CarDTO>> cars = carRepo.findByModel(model).stream()
-            .map(car -> EntityModel.of(new CarDTO(car),
-                linkTo(methodOn(CarController.class)
-                    .getCarByRegistrationNumber(car.getRegistrationNumber())).withSelfRel()))
+            .map(car -> toModel(new CarDTO(car)))
             .collect(Collectors.toList());
 
         return ResponseEntity.ok(CollectionModel.of(cars,
@@ -207,12 +232,14 @@ public class CarController {
             rawCars = (List<Car>) carRepo.findAll();
         }
         List<EntityModel<CarDTO>> cars = rawCars.stream()
-            .map(car -> EntityModel.of(new CarDTO(car),
-                linkTo(methodOn(CarController.class)
-                    .getCarByRegistrationNumber(car.getRegistrationNumber())).withSelfRel()))
+            .map(car -> toModel(new CarDTO(car)))
             .collect(Collectors.toList());
 
         return ResponseEntity.ok(CollectionModel.of(cars,
             linkTo(methodOn(CarController.class).getCarsByCapacity(min, max)).withSelfRel()));
     }
+
+    EntityModel<CarDTO> toModel(CarDTO car) {
+        return EntityModel.of(car, links.car(car.getRegistrationNumber()).withSelfRel());
+    }
 }
@@ -20,9 +20,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import pl.polsl.courier.management.system.cache.DispatchSummaryCache;
 import pl.polsl.courier.management.system.dto.ClientDTO;
+import pl.polsl.courier.management.system.dto.ClientStatsDTO;
 import pl.polsl.courier.management.system.entity.Client;
+import pl.polsl.courier.management.system.metrics.SqlBudget;
+import pl.polsl.courier.management.system.report.ParcelStatsCounters;
 import pl.polsl.courier.management.system.repository.ClientRepository;
+import pl.polsl.courier.management.system.search.ClientContactFilter;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
@@ -33,6 +38,14 @@ public class ClientController {
 
     @Autowired
     private ClientRepository clientRepo;
+    @Autowired
+    private ClientContactFilter contactFilter;
+    @Autowired
+    private DispatchSummaryCache dispatchSummaries;
+    @Autowired
+    private ParcelStatsCounters stats;
+    @Autowired
+    private LinkFactory links;
 
     @Operation(summary = "Dodaj nowego klienta")
     @ApiResponses({
@@ -42,10 +55,12 @@ public class ClientController {
     })
     @PostMapping
     public ResponseEntity<EntityModel<ClientDTO>> addClient(@Valid @RequestBody ClientDTO dto) {
-        if (clientRepo.existsByEmail(dto.getEmail())) {
+        if (contactFilter.mightContainEmail(dto.getEmail())
+                && clientRepo.existsByEmail(dto.getEmail())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
         }
-        if (clientRepo.existsByPhoneNumber(dto.getPhoneNumber())) {
+        if (contactFilter.mightContainPhoneNumber(dto.getPhoneNumber())
+                && clientRepo.existsByPhoneNumber(dto.getPhoneNumber())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Phone number already in use");
         }
 
@@ -56,14 +71,15 @@ public class ClientController {
         client.setPhoneNumber(dto.getPhoneNumber());
         client.setAddress(dto.getAddress());
 
+        contactFilter.put(dto.getEmail(), dto.getPhoneNumber());
         Client saved = clientRepo.save(client);
         ClientDTO savedDto = new ClientDTO(saved);
 
         EntityModel<ClientDTO> model = EntityModel.of(savedDto,
-            linkTo(methodOn(ClientController.class).getById(savedDto.getId())).withSelfRel()
+            links.client(savedDto.getId()).withSelfRel()
         );
         savedDto.getParcelIds().forEach(pid ->
-            model.add(linkTo(methodOn(ParcelController.class).getParcel(pid)).withRel("parcel"))
+            model.add(links.parcel(pid).withRel("parcel"))
         );
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
@@ -84,10 +100,14 @@ public class ClientController {
         Client client = clientRepo.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found"));
 
-        if (clientRepo.existsByEmailAndIdNot(dto.getEmail(), id)) {
+        if (!dto.getEmail().equals(client.getEmail())
+                && contactFilter.mightContainEmail(dto.getEmail())
+                && clientRepo.existsByEmailAndIdNot(dto.getEmail(), id)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
         }
-        if (clientRepo.existsByPhoneNumberAndIdNot(dto.getPhoneNumber(), id)) {
+        if (!dto.getPhoneNumber().equals(client.getPhoneNumber())
+                && contactFilter.mightContainPhoneNumber(dto.getPhoneNumber())
+                && clientRepo.existsByPhoneNumberAndIdNot(dto.getPhoneNumber(), id)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Phone number already in use");
         }
 
@@ -97,14 +117,15 @@ public class ClientController {
         client.setPhoneNumber(dto.getPhoneNumber());
         client.setAddress(dto.getAddress());
 
+        contactFilter.put(dto.getEmail(), dto.getPhoneNumber());
         Client updated = clientRepo.save(client);
         ClientDTO updatedDto = new ClientDTO(updated);
 
         EntityModel<ClientDTO> model = EntityModel.of(updatedDto,
-            linkTo(methodOn(ClientController.class).getById(updatedDto.getId())).withSelfRel()
+            links.client(updatedDto.getId()).withSelfRel()
         );
         updatedDto.getParcelIds().forEach(pid ->
-            model.add(linkTo(methodOn(ParcelController.class).getParcel(pid)).withRel("parcel"))
+            model.add(links.parcel(pid).withRel("parcel"))
         );
 
         return ResponseEntity.ok(model);
@@ -121,6 +142,9 @@ public class ClientController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found");
         }
         clientRepo.deleteById(id);
+        // The client's parcels go with it, on routes of any day.
+        dispatchSummaries.clear();
+        stats.clientDeleted(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -131,22 +155,39 @@ public class ClientController {
         @ApiResponse(responseCode = "404", description = "Klient nie znaleziony")
     })
     @GetMapping("/{id}")
+    @SqlBudget(2)
     public ResponseEntity<EntityModel<ClientDTO>> getById(@PathVariable Long id) {
         return clientRepo.findById(id)
             .map(client -> {
                 ClientDTO dto = new ClientDTO(client);
                 EntityModel<ClientDTO> model = EntityModel.of(dto,
-                    linkTo(methodOn(ClientController.class).getById(id)).withSelfRel(),
-                    linkTo(methodOn(ClientController.class).getByEmail(dto.getEmail())).withRel("byEmail")
+                    links.client(id).withSelfRel(),
+                    links.clientByEmail(dto.getEmail()).withRel("byEmail")
                 );
                 dto.getParcelIds().forEach(pid ->
-                    model.add(linkTo(methodOn(ParcelController.class).getParcel(pid)).withRel("parcel"))
+                    model.add(links.parcel(pid).withRel("parcel"))
                 );
                 return ResponseEntity.ok(model);
             })
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found"));
     }
 
+    @Operation(summary = "Pobierz statystyki przesyłek klienta")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Liczba, łączna waga i cena przesyłek klienta",
+            content = @Content(schema = @Schema(implementation = ClientStatsDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Klient nie znaleziony")
+    })
+    @GetMapping("/{id}/stats")
+    @SqlBudget(1)
+    public ResponseEntity<ClientStatsDTO> getStats(@PathVariable Long id) {
+        // Only a client without parcels needs the lookup.
+        if (!stats.hasParcels(id) && !clientRepo.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found");
+        }
+        return ResponseEntity.ok(stats.client(id));
+    }
+
     @Operation(summary = "Pobierz klientów po imieniu")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Lista klientów zwrócona",
@@ -198,6 +239,7 @@ public class ClientController {
         @ApiResponse(responseCode = "404", description = "Klient o podanym emailu nie znaleziony")
     })
     @GetMapping("/email/{email}")
+    @SqlBudget(2)
     public ResponseEntity<EntityModel<ClientDTO>> getByEmail(
             @PathVariable String email) {
         return clientRepo.findByEmail(email)
@@ -253,13 +295,13 @@ public class ClientController {
         ));
     }
 
-    private EntityModel<ClientDTO> toModel(Client client) {
+    EntityModel<ClientDTO> toModel(Client client) {
         ClientDTO dto = new ClientDTO(client);
         EntityModel<ClientDTO> model = EntityModel.of(dto,
-            linkTo(methodOn(ClientController.class).getById(client.getId())).withSelfRel()
+            links.client(client.getId()).withSelfRel()
         );
         dto.getParcelIds().forEach(pid ->
-            model.add(linkTo(methodOn(ParcelController.class).getParcel(pid))
+            model.add(links.parcel(pid)
                 .withRel("parcel")));
         return model;
     }
@@ -0,0 +1,31 @@
+package pl.polsl.courier.management.system.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Opaque keyset cursors for paged listings: the last ID of a page, Base64-encoded. */
+final class Cursor {
+
+    private Cursor() {
+    }
+
+    static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** The ID after which the page starts; 0 for no cursor. */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+}
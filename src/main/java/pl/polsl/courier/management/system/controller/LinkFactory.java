@@ -0,0 +1,134 @@
+package pl.polsl.courier.management.system.controller;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Links to single resources without a methodOn proxy per element. Each handler mapping is
+ * resolved to a URI template once, and a link is the request's base URI plus the template
+ * with its variables percent-encoded the way linkTo(methodOn(...)) encodes them. A null
+ * variable is left unexpanded, giving the same templated link as linkTo.
+ */
+@Component
+public class LinkFactory {
+
+    private static final String BASE_URI = LinkFactory.class.getName() + ".BASE_URI";
+
+    private final Template routePlan = Template.of(RoutePlanController.class, "getRoutePlan", Long.class);
+    private final Template parcel = Template.of(ParcelController.class, "getParcel", Long.class);
+    private final Template parcelEvents = Template.of(ParcelController.class, "getParcelEvents", Long.class);
+    private final Template client = Template.of(ClientController.class, "getById", Long.class);
+    private final Template clientByEmail = Template.of(ClientController.class, "getByEmail", String.class);
+    private final Template car = Template.of(CarController.class, "getCarByRegistrationNumber", String.class);
+
+    public Link routePlan(Long id) {
+        return routePlan.expand(id);
+    }
+
+    public Link parcel(Long id) {
+        return parcel.expand(id);
+    }
+
+    public Link parcelEvents(Long id) {
+        return parcelEvents.expand(id);
+    }
+
+    public Link client(Long id) {
+        return client.expand(id);
+    }
+
+    public Link clientByEmail(String email) {
+        return clientByEmail.expand(email);
+    }
+
+    public Link car(String registrationNumber) {
+        return car.expand(registrationNumber);
+    }
+
+    // Same base as linkTo: the current servlet mapping, computed once per request, or a
+    // relative link outside of one.
+    private static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String base = (String) attributes.getAttribute(BASE_URI, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            if (base.endsWith("/")) {
+                base = base.substring(0, base.length() - 1);
+            }
+            attributes.setAttribute(BASE_URI, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+
+    /** A mapping with one path variable, split around it. */
+    private static final class Template {
+        private final String prefix;
+        private final String variable;
+        private final String suffix;
+
+        private Template(String prefix, String variable, String suffix) {
+            this.prefix = prefix;
+            this.variable = variable;
+            this.suffix = suffix;
+        }
+
+        static Template of(Class<?> controller, String handler, Class<?>... parameterTypes) {
+            Method method = ReflectionUtils.findMethod(controller, handler, parameterTypes);
+            if (method == null) {
+                throw new IllegalStateException("No handler " + controller.getSimpleName() + "." + handler);
+            }
+            String mapping = new AnnotationMappingDiscoverer(RequestMapping.class).getMapping(controller, method);
+            int open = mapping.indexOf('{');
+            int close = mapping.indexOf('}', open);
+            if (open < 0 || close < 0 || mapping.indexOf('{', close) >= 0) {
+                throw new IllegalStateException("Expected one path variable in " + mapping);
+            }
+            return new Template(mapping.substring(0, open), mapping.substring(open, close + 1),
+                mapping.substring(close + 1));
+        }
+
+        Link expand(Object value) {
+            String base = baseUri();
+            StringBuilder href = new StringBuilder(base.length() + prefix.length() + suffix.length() + 24)
+                .append(base).append(prefix);
+            if (value == null) {
+                href.append(variable);
+            } else if (value instanceof Long) {
+                href.append(((Long) value).longValue());
+            } else {
+                appendEncoded(href, value.toString());
+            }
+            return Link.of(href.append(suffix).toString());
+        }
+    }
+
+    // linkTo encodes a path variable as a URI variable, so '@', ':', '+' and '/' are encoded too:
+    // everything but the unreserved characters, as UriUtils.encode does. LinkFactoryTest checks it.
+    private static void appendEncoded(StringBuilder href, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isUnreserved(value.charAt(i))) {
+                href.append(UriUtils.encode(value, StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        href.append(value);
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+}
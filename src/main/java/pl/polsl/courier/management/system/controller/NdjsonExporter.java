@@ -0,0 +1,72 @@
+package pl.polsl.courier.management.system.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams repository rows as newline-delimited JSON. The rows are read in a read-only
+ * transaction opened on the thread writing the response, and the persistence context is
+ * cleared every {@value #CLEAR_INTERVAL} rows, so memory use does not grow with the table.
+ */
+@Component
+public class NdjsonExporter {
+
+    static final int CLEAR_INTERVAL = 1000;
+
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @PersistenceContext private EntityManager entityManager;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /** Opens the stream when the response is written; closing it must release every cursor it uses. */
+    public ResponseEntity<StreamingResponseBody> export(Supplier<? extends Stream<?>> rows) {
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            json.setRootValueSeparator(null);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<?> stream = rows.get()) {
+                    long written = 0;
+                    for (Iterator<?> it = stream.iterator(); it.hasNext(); ) {
+                        json.writeObject(it.next());
+                        json.writeRaw('\n');
+                        if (++written % CLEAR_INTERVAL == 0) {
+                            json.flush();
+                            entityManager.clear();
+                        }
+                    }
+                    json.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+}
@@ -1,18 +1,43 @@
 package pl.polsl.courier.management.system.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,11 +46,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import pl.polsl.courier.management.system.cache.DispatchSummaryCache;
+import pl.polsl.courier.management.system.dto.ParcelBatchResultDTO;
 import pl.polsl.courier.management.system.dto.ParcelDTO;
+import pl.polsl.courier.management.system.dto.ParcelEventDTO;
+import pl.polsl.courier.management.system.dto.ParcelStatsDTO;
+import pl.polsl.courier.management.system.entity.Client;
 import pl.polsl.courier.management.system.entity.Parcel;
+import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.feed.RouteFeed;
+import pl.polsl.courier.management.system.metrics.SqlBudget;
+import pl.polsl.courier.management.system.report.ParcelStatsCounters;
+import pl.polsl.courier.management.system.report.ParcelStatsCounters.Amount;
 import pl.polsl.courier.management.system.repository.ParcelRepository;
+import pl.polsl.courier.management.system.repository.ParcelSnapshot;
 import pl.polsl.courier.management.system.repository.ClientRepository;
 import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+import pl.polsl.courier.management.system.tracking.ParcelEvent;
+import pl.polsl.courier.management.system.tracking.ParcelEventJournal;
+import pl.polsl.courier.management.system.tracking.ParcelEventType;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
@@ -37,6 +76,27 @@ public class ParcelController {
     @Autowired private ParcelRepository parcelRepo;
     @Autowired private ClientRepository clientRepo;
     @Autowired private RoutePlanRepository routePlanRepo;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private Validator validator;
+    @Autowired private LinkFactory links;
+    @Autowired private NdjsonExporter exporter;
+    @Autowired private ParcelEventJournal journal;
+    @Autowired private RouteFeed feed;
+    @Autowired private DispatchSummaryCache dispatchSummaries;
+    @Autowired private ParcelStatsCounters stats;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @PersistenceContext private EntityManager entityManager;
+
+    private TransactionTemplate transactions;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int INGEST_CHUNK_SIZE = 1000;
+
+    @PostConstruct
+    void init() {
+        transactions = new TransactionTemplate(transactionManager);
+    }
 
     @Operation(summary = "Dodaj nową przesyłkę")
     @ApiResponses({
@@ -47,13 +107,7 @@ public class ParcelController {
     @PostMapping
     public ResponseEntity<EntityModel<ParcelDTO>> addParcel(@Valid @RequestBody ParcelDTO dto) {
         Parcel p = new Parcel();
-        p.setContentDescription(dto.getContentDescription());
-        p.setSenderAddress(dto.getSenderAddress());
-        p.setRecipientAddress(dto.getRecipientAddress());
-        p.setDispatchDate(dto.getDispatchDate());
-        p.setDeliveryDate(dto.getDeliveryDate());
-        p.setWeight(dto.getWeight());
-        p.setPrice(dto.getPrice());
+        applyDto(p, dto);
 
         if (dto.getClientId() != null) {
             clientRepo.findById(dto.getClientId()).ifPresent(p::setClient);
@@ -64,16 +118,56 @@ public class ParcelController {
 
         Parcel saved = parcelRepo.save(p);
         ParcelDTO savedDto = new ParcelDTO(saved);
+        feed.parcelCreated(scheduleDate(saved), savedDto);
+        dispatchSummaries.evict(scheduleDate(saved));
+        stats.added(Amount.of(saved));
 
         EntityModel<ParcelDTO> model = EntityModel.of(savedDto,
-            linkTo(methodOn(ParcelController.class).getParcel(savedDto.getId())).withSelfRel(),
-            linkTo(methodOn(ClientController.class).getById(savedDto.getClientId())).withRel("client"),
-            linkTo(methodOn(RoutePlanController.class).getRoutePlan(savedDto.getRoutePlanId())).withRel("routePlan")
+            links.parcel(savedDto.getId()).withSelfRel(),
+            links.client(savedDto.getClientId()).withRel("client"),
+            links.routePlan(savedDto.getRoutePlanId()).withRel("routePlan")
         );
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
 
+    @Operation(summary = "Dodaj partię przesyłek (tablica JSON)",
+        description = "Przesyłki z błędami walidacji albo z nieistniejącym klientem lub trasą są pomijane "
+            + "z własnym statusem. Pozostałe zapisywane są w jednej transakcji: błąd bazy danych wycofuje "
+            + "całą partię i nie zostaje zapisana żadna przesyłka.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Wynik dla każdej przesyłki z partii",
+            content = @Content(schema = @Schema(implementation = ParcelBatchResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowe dane wejściowe"),
+        @ApiResponse(responseCode = "500", description = "Błąd zapisu, cała partia wycofana")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ParcelBatchResultDTO>> addParcels(@RequestBody List<ParcelDTO> dtos) {
+        return ResponseEntity.ok(transactions.execute(status -> ingest(dtos)));
+    }
+
+    @Operation(summary = "Dodaj partię przesyłek (NDJSON)",
+        description = "Przesyłki z błędami walidacji albo z nieistniejącym klientem lub trasą są pomijane "
+            + "z własnym statusem. Pozostałe zapisywane są w jednej transakcji: błąd bazy danych wycofuje "
+            + "całą partię i nie zostaje zapisana żadna przesyłka.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Wynik dla każdej przesyłki z partii",
+            content = @Content(schema = @Schema(implementation = ParcelBatchResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowe dane wejściowe"),
+        @ApiResponse(responseCode = "500", description = "Błąd zapisu, cała partia wycofana")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<ParcelBatchResultDTO>> addParcelsNdjson(InputStream body) throws IOException {
+        List<ParcelDTO> dtos;
+        try (MappingIterator<ParcelDTO> it = objectMapper.readerFor(ParcelDTO.class).readValues(body)) {
+            dtos = it.readAll();
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Malformed NDJSON: " + e.getOriginalMessage());
+        }
+        return ResponseEntity.ok(transactions.execute(status -> ingest(dtos)));
+    }
+
     @Operation(summary = "Pobierz przesyłkę po ID")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Przesyłka znaleziona",
@@ -81,6 +175,7 @@ public class ParcelController {
         @ApiResponse(responseCode = "404", description = "Przesyłka nie znaleziona")
     })
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public ResponseEntity<EntityModel<ParcelDTO>> getParcel(@PathVariable Long id) {
         Parcel parcel = parcelRepo.findById(id)
             .orElseThrow(() -> new ResponseStatusException(
@@ -90,18 +185,75 @@ public class ParcelController {
         return ResponseEntity.ok(toModel(parcel));
     }
 
-    @Operation(summary = "Pobierz wszystkie przesyłki")
-    @ApiResponse(responseCode = "200", description = "Lista przesyłek",
-        content = @Content(schema = @Schema(implementation = ParcelDTO.class)))
+    @Operation(summary = "Pobierz stronę przesyłek (stronicowanie kursorem)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Strona przesyłek z linkiem 'next'",
+            content = @Content(schema = @Schema(implementation = ParcelDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowy kursor lub rozmiar strony")
+    })
     @GetMapping
-    public ResponseEntity<CollectionModel<EntityModel<ParcelDTO>>> getAllParcels() {
-        List<EntityModel<ParcelDTO>> list = StreamSupport.stream(parcelRepo.findAll().spliterator(), false)
+    @SqlBudget(1)
+    public ResponseEntity<CollectionModel<EntityModel<ParcelDTO>>> getAllParcels(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Parcel> page = parcelRepo.findByIdGreaterThanOrderByIdAsc(
+            Cursor.decode(after), PageRequest.of(0, size));
+        List<EntityModel<ParcelDTO>> list = page.stream()
             .map(this::toModel)
             .collect(Collectors.toList());
 
-        return ResponseEntity.ok(CollectionModel.of(list,
-            linkTo(methodOn(ParcelController.class).getAllParcels()).withSelfRel()
-        ));
+        CollectionModel<EntityModel<ParcelDTO>> model = CollectionModel.of(list,
+            linkTo(methodOn(ParcelController.class).getAllParcels(after, size)).withSelfRel()
+        );
+        if (page.size() == size) {
+            String next = Cursor.encode(page.get(page.size() - 1).getId());
+            model.add(linkTo(methodOn(ParcelController.class).getAllParcels(next, size)).withRel("next"));
+        }
+        return ResponseEntity.ok(model);
+    }
+
+    @Operation(summary = "Strumieniuj wszystkie przesyłki jako tablicę JSON")
+    @ApiResponse(responseCode = "200", description = "Przesyłki zapisywane partiami w miarę odczytu z bazy",
+        content = @Content(schema = @Schema(implementation = ParcelDTO.class)))
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllParcels() {
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            json.writeStartArray();
+            long after = 0L;
+            List<Parcel> batch;
+            do {
+                batch = parcelRepo.findByIdGreaterThanOrderByIdAsc(
+                    after, PageRequest.of(0, STREAM_BATCH_SIZE));
+                for (Parcel p : batch) {
+                    json.writeObject(new ParcelDTO(p));
+                }
+                json.flush();
+                // Open-in-view keeps one persistence context for the whole response.
+                entityManager.clear();
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == STREAM_BATCH_SIZE);
+            json.writeEndArray();
+            json.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    @Operation(summary = "Eksportuj wszystkie przesyłki jako NDJSON")
+    @ApiResponse(responseCode = "200", description = "Jedna przesyłka w wierszu, odczytywana strumieniowo z bazy",
+        content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+            schema = @Schema(implementation = ParcelDTO.class)))
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportParcels() {
+        return exporter.export(() -> parcelRepo.streamAll().map(ParcelDTO::new));
     }
 
     @Operation(summary = "Aktualizuj przesyłkę po ID")
@@ -122,14 +274,11 @@ public class ParcelController {
                     "Przesyłka nie znaleziona z ID: " + id)
             );
 
+        LocalDate previousDate = scheduleDate(p);
+        Amount previous = Amount.of(p);
+
         // Aktualizacja pól
-        p.setContentDescription(dto.getContentDescription());
-        p.setSenderAddress(dto.getSenderAddress());
-        p.setRecipientAddress(dto.getRecipientAddress());
-        p.setDispatchDate(dto.getDispatchDate());
-        p.setDeliveryDate(dto.getDeliveryDate());
-        p.setWeight(dto.getWeight());
-        p.setPrice(dto.getPrice());
+        applyDto(p, dto);
         if (dto.getClientId() != null) {
             clientRepo.findById(dto.getClientId()).ifPresent(p::setClient);
         }
@@ -138,6 +287,9 @@ public class ParcelController {
         }
 
         Parcel updated = parcelRepo.save(p);
+        feed.parcelUpdated(previousDate, scheduleDate(updated), new ParcelDTO(updated));
+        dispatchSummaries.evict(previousDate, scheduleDate(updated));
+        stats.changed(previous, Amount.of(updated));
         return ResponseEntity.ok(toModel(updated));
     }
 
@@ -148,20 +300,188 @@ public class ParcelController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteParcel(@PathVariable Long id) {
-        if (!parcelRepo.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-                "Przesyłka nie znaleziona z ID: " + id);
-        }
+        ParcelSnapshot parcel = parcelRepo.findSnapshotById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Przesyłka nie znaleziona z ID: " + id));
         parcelRepo.deleteById(id);
+        feed.parcelDeleted(parcel.getScheduleDate(), id);
+        dispatchSummaries.evict(parcel.getScheduleDate());
+        stats.removed(Amount.of(parcel));
         return ResponseEntity.noContent().build();
     }
 
-    private EntityModel<ParcelDTO> toModel(Parcel p) {
+    @Operation(summary = "Zarejestruj zdarzenie śledzenia przesyłki")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Zdarzenie zapisane w dzienniku",
+            content = @Content(schema = @Schema(implementation = ParcelEventDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowe dane wejściowe"),
+        @ApiResponse(responseCode = "404", description = "Przesyłka nie znaleziona")
+    })
+    @PostMapping("/{id}/events")
+    @SqlBudget(3)
+    public ResponseEntity<EntityModel<ParcelEventDTO>> addParcelEvent(
+            @PathVariable Long id,
+            @Valid @RequestBody ParcelEventDTO dto) {
+        ParcelSnapshot parcel = parcelRepo.findSnapshotById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Przesyłka nie znaleziona z ID: " + id));
+        ParcelEvent event = journal.append(id, dto.getType(),
+            dto.getTime() != null ? dto.getTime() : LocalDateTime.now());
+
+        // Only pickup and delivery are mirrored on the parcel row, and only when the time changes.
+        int updated = switch (event.type()) {
+            case PICKED_UP -> parcelRepo.recordDispatch(id, event.time());
+            case DELIVERED -> parcelRepo.recordDelivery(id, event.time());
+            default -> 0;
+        };
+        if (updated > 0) {
+            if (event.type() == ParcelEventType.PICKED_UP) {
+                Amount previous = Amount.of(parcel);
+                stats.changed(previous, previous.withDispatchDate(event.time()));
+            }
+            if (feed.watching(parcel.getScheduleDate())) {
+                parcelRepo.findById(id).ifPresent(changed -> feed.parcelUpdated(parcel.getScheduleDate(),
+                    parcel.getScheduleDate(), new ParcelDTO(changed)));
+            }
+        }
+
+        EntityModel<ParcelEventDTO> model = EntityModel.of(new ParcelEventDTO(event),
+            links.parcelEvents(id).withRel("events"),
+            links.parcel(id).withRel("parcel")
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(model);
+    }
+
+    @Operation(summary = "Pobierz historię zdarzeń przesyłki z dziennika")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Zdarzenia w kolejności zapisu (pusta lista, gdy brak)",
+            content = @Content(schema = @Schema(implementation = ParcelEventDTO.class)))
+    })
+    @GetMapping("/{id}/events")
+    @SqlBudget(0)
+    public ResponseEntity<CollectionModel<ParcelEventDTO>> getParcelEvents(@PathVariable Long id) {
+        List<ParcelEventDTO> events = journal.events(id).stream()
+            .map(ParcelEventDTO::new)
+            .toList();
+        return ResponseEntity.ok(CollectionModel.of(events,
+            links.parcelEvents(id).withSelfRel(),
+            links.parcel(id).withRel("parcel")
+        ));
+    }
+
+    @Operation(summary = "Pobierz statystyki przesyłek nadanych w zakresie dat")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Liczba, waga i cena przesyłek łącznie i dla każdego dnia",
+            content = @Content(schema = @Schema(implementation = ParcelStatsDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Data końcowa przed datą początkową")
+    })
+    @GetMapping("/stats")
+    @SqlBudget(0)
+    public ResponseEntity<ParcelStatsDTO> getParcelStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+        }
+        return ResponseEntity.ok(stats.days(from, to));
+    }
+
+    // Runs in one transaction; chunks are flushed and cleared to bound the persistence context.
+    private List<ParcelBatchResultDTO> ingest(List<ParcelDTO> dtos) {
+        Set<Long> clientIds = dtos.stream()
+            .filter(Objects::nonNull)
+            .map(ParcelDTO::getClientId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> routeIds = dtos.stream()
+            .filter(Objects::nonNull)
+            .map(ParcelDTO::getRoutePlanId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<Long, Client> clients = StreamSupport.stream(clientRepo.findAllById(clientIds).spliterator(), false)
+            .collect(Collectors.toMap(Client::getId, Function.identity()));
+        Map<Long, RoutePlan> routes = StreamSupport.stream(routePlanRepo.findAllById(routeIds).spliterator(), false)
+            .collect(Collectors.toMap(RoutePlan::getId, Function.identity()));
+
+        List<ParcelBatchResultDTO> results = new ArrayList<>(dtos.size());
+        List<ParcelBatchResultDTO> accepted = new ArrayList<>();
+        List<Parcel> pending = new ArrayList<>();
+        List<Amount> amounts = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            ParcelDTO dto = dtos.get(i);
+            ParcelBatchResultDTO result = new ParcelBatchResultDTO(i, HttpStatus.CREATED.value(), null, null);
+            results.add(result);
+            if (dto == null) {
+                result.setStatus(HttpStatus.BAD_REQUEST.value());
+                result.setMessage("parcel must not be null");
+                continue;
+            }
+            Set<ConstraintViolation<ParcelDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                result.setStatus(HttpStatus.BAD_REQUEST.value());
+                result.setMessage(violations.stream()
+                    .map(cv -> cv.getPropertyPath() + ": " + cv.getMessage())
+                    .collect(Collectors.joining("; ")));
+                continue;
+            }
+            if (dto.getClientId() != null && !clients.containsKey(dto.getClientId())) {
+                result.setStatus(HttpStatus.NOT_FOUND.value());
+                result.setMessage("Client not found: " + dto.getClientId());
+                continue;
+            }
+            if (dto.getRoutePlanId() != null && !routes.containsKey(dto.getRoutePlanId())) {
+                result.setStatus(HttpStatus.NOT_FOUND.value());
+                result.setMessage("Route plan not found: " + dto.getRoutePlanId());
+                continue;
+            }
+            Parcel p = new Parcel();
+            applyDto(p, dto);
+            p.setClient(clients.get(dto.getClientId()));
+            p.setRoutePlan(routes.get(dto.getRoutePlanId()));
+            pending.add(p);
+            accepted.add(result);
+        }
+
+        for (int from = 0; from < pending.size(); from += INGEST_CHUNK_SIZE) {
+            int to = Math.min(from + INGEST_CHUNK_SIZE, pending.size());
+            List<Parcel> chunk = pending.subList(from, to);
+            parcelRepo.saveAll(chunk);
+            entityManager.flush();
+            for (int i = from; i < to; i++) {
+                Parcel saved = pending.get(i);
+                accepted.get(i).setId(saved.getId());
+                if (feed.watching(scheduleDate(saved))) {
+                    feed.parcelCreated(scheduleDate(saved), new ParcelDTO(saved));
+                }
+                dispatchSummaries.evict(scheduleDate(saved));
+                amounts.add(Amount.of(saved));
+            }
+            entityManager.clear();
+        }
+        stats.added(amounts);
+        return results;
+    }
+
+    private void applyDto(Parcel p, ParcelDTO dto) {
+        p.setContentDescription(dto.getContentDescription());
+        p.setSenderAddress(dto.getSenderAddress());
+        p.setRecipientAddress(dto.getRecipientAddress());
+        p.setDispatchDate(dto.getDispatchDate());
+        p.setDeliveryDate(dto.getDeliveryDate());
+        p.setWeight(dto.getWeight());
+        p.setPrice(dto.getPrice());
+    }
+
+    private static LocalDate scheduleDate(Parcel p) {
+        return p.getRoutePlan() != null ? p.getRoutePlan().getScheduleDate() : null;
+    }
+
+    EntityModel<ParcelDTO> toModel(Parcel p) {
         ParcelDTO dto = new ParcelDTO(p);
         EntityModel<ParcelDTO> model = EntityModel.of(dto,
-            linkTo(methodOn(ParcelController.class).getParcel(p.getId())).withSelfRel(),
-            linkTo(methodOn(ClientController.class).getById(dto.getClientId())).withRel("client"),
-            linkTo(methodOn(RoutePlanController.class).getRoutePlan(dto.getRoutePlanId())).withRel("routePlan")
+            links.parcel(p.getId()).withSelfRel(),
+            links.client(dto.getClientId()).withRel("client"),
+            links.routePlan(dto.getRoutePlanId()).withRel("routePlan")
         );
         return model;
     }
@@ -1,20 +1,32 @@
 package pl.polsl.courier.management.system.controller;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,11 +35,31 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import pl.polsl.courier.management.system.cache.DispatchSummaryCache;
+import pl.polsl.courier.management.system.dto.CarAssignmentDTO;
+import pl.polsl.courier.management.system.dto.CarAssignmentPlanDTO;
+import pl.polsl.courier.management.system.dto.DispatchSummaryDTO;
 import pl.polsl.courier.management.system.dto.RoutePlanDTO;
+import pl.polsl.courier.management.system.entity.Address;
 import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.entity.RouteStop;
+import pl.polsl.courier.management.system.feed.RouteFeed;
+import pl.polsl.courier.management.system.metrics.SqlBudget;
+import pl.polsl.courier.management.system.optimization.CarAssignmentSolver;
+import pl.polsl.courier.management.system.optimization.DistanceProvider;
+import pl.polsl.courier.management.system.optimization.OptimizedRoute;
+import pl.polsl.courier.management.system.optimization.RouteOptimizer;
+import pl.polsl.courier.management.system.report.ParcelStatsCounters;
+import pl.polsl.courier.management.system.report.ParcelStatsCounters.Amount;
 import pl.polsl.courier.management.system.repository.CarRepository;
 import pl.polsl.courier.management.system.repository.ParcelRepository;
+import pl.polsl.courier.management.system.repository.ParcelRoute;
+import pl.polsl.courier.management.system.repository.RouteCarDay;
+import pl.polsl.courier.management.system.repository.RouteParcel;
 import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+import pl.polsl.courier.management.system.repository.StopAddress;
+import pl.polsl.courier.management.system.search.AddressFragmentIndex;
+import pl.polsl.courier.management.system.search.FleetAvailabilityIndex;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
@@ -37,12 +69,34 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Validated
 public class RoutePlanController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private RoutePlanRepository routePlanRepo;
     @Autowired
     private CarRepository carRepo;
     @Autowired
     private ParcelRepository parcelRepo;
+    @Autowired
+    private RouteOptimizer routeOptimizer;
+    @Autowired
+    private DistanceProvider distanceProvider;
+    @Autowired
+    private CarAssignmentSolver carAssignmentSolver;
+    @Autowired
+    private AddressFragmentIndex addressIndex;
+    @Autowired
+    private FleetAvailabilityIndex fleetIndex;
+    @Autowired
+    private LinkFactory links;
+    @Autowired
+    private NdjsonExporter exporter;
+    @Autowired
+    private RouteFeed feed;
+    @Autowired
+    private DispatchSummaryCache dispatchSummaries;
+    @Autowired
+    private ParcelStatsCounters stats;
 
     @Operation(summary = "Dodaj nowy plan trasy")
     @ApiResponses({
@@ -51,14 +105,19 @@ public class RoutePlanController {
         @ApiResponse(responseCode = "400", description = "Nieprawidłowe dane wejściowe")
     })
     @PostMapping
+    @Transactional
     public ResponseEntity<EntityModel<RoutePlanDTO>> addRoutePlan(
             @Valid @RequestBody RoutePlanDTO dto) {
         RoutePlan route = new RoutePlan();
         applyDto(route, dto);
-        RoutePlan saved = routePlanRepo.save(route);
+        RoutePlan saved = saveWithParcels(route, dto.getParcelIds());
+        addressIndex.put(saved);
+        fleetIndex.putRoute(saved.getId(), saved.getScheduleDate(),
+            saved.getCar() != null ? saved.getCar().getId() : null);
+        feed.routeCreated(new RoutePlanDTO(saved));
+        dispatchSummaries.evict(saved.getScheduleDate());
         return ResponseEntity
-            .created(linkTo(methodOn(RoutePlanController.class)
-                .getRoutePlan(saved.getId())).toUri())
+            .created(links.routePlan(saved.getId()).toUri())
             .body(toModel(saved));
     }
 
@@ -69,6 +128,7 @@ public class RoutePlanController {
         @ApiResponse(responseCode = "404", description = "Plan trasy nie znaleziony")
     })
     @GetMapping("/{id}")
+    @SqlBudget(4)
     public ResponseEntity<EntityModel<RoutePlanDTO>> getRoutePlan(
             @PathVariable Long id) {
         RoutePlan route = routePlanRepo.findById(id)
@@ -87,6 +147,7 @@ public class RoutePlanController {
         @ApiResponse(responseCode = "400", description = "Nieprawidłowe dane wejściowe")
     })
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<EntityModel<RoutePlanDTO>> updateRoutePlan(
             @PathVariable Long id,
             @Valid @RequestBody RoutePlanDTO dto) {
@@ -95,25 +156,87 @@ public class RoutePlanController {
                 HttpStatus.NOT_FOUND,
                 "Nie można zaktualizować. Plan trasy nie znaleziony z ID: " + id
             ));
+        LocalDate previousDate = route.getScheduleDate();
         applyDto(route, dto);
-        RoutePlan updated = routePlanRepo.save(route);
+        RoutePlan updated = saveWithParcels(route, dto.getParcelIds());
+        addressIndex.put(updated);
+        fleetIndex.putRoute(updated.getId(), updated.getScheduleDate(),
+            updated.getCar() != null ? updated.getCar().getId() : null);
+        feed.routeUpdated(previousDate, new RoutePlanDTO(updated));
+        dispatchSummaries.evict(previousDate, updated.getScheduleDate());
         return ResponseEntity.ok(toModel(updated));
     }
 
+    @Operation(summary = "Optymalizuj kolejność przystanków planu trasy")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Przystanki uporządkowane",
+            content = @Content(schema = @Schema(implementation = RoutePlanDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Adres w nieprawidłowym formacie"),
+        @ApiResponse(responseCode = "404", description = "Plan trasy nie znaleziony"),
+        @ApiResponse(responseCode = "501", description = "Brak źródła odległości drogowych do przeliczenia")
+    })
+    @PostMapping("/{id}/optimize")
+    @Transactional
+    public ResponseEntity<EntityModel<RoutePlanDTO>> optimizeRoutePlan(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean recompute) {
+        if (recompute && !distanceProvider.roadDistances()) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                "Nie można przeliczyć dystansu i czasu bez źródła odległości drogowych");
+        }
+        RoutePlan route = routePlanRepo.findById(id)
+            .orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "Nie można zoptymalizować. Plan trasy nie znaleziony z ID: " + id
+            ));
+        List<RouteStop> stops = route.getStops();
+        List<String> points = new ArrayList<>(stops.size() + 2);
+        points.add(route.getStartLocation());
+        stops.forEach(stop -> points.add(stop.getAddress()));
+        points.add(route.getEndLocation());
+
+        double[][] dist;
+        try {
+            dist = distanceProvider.matrix(points);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        OptimizedRoute optimized = routeOptimizer.optimize(dist);
+        route.setStops(Arrays.stream(optimized.getStopOrder())
+            .mapToObj(stops::get)
+            .collect(Collectors.toList()));
+        if (recompute) {
+            route.setDistance(Math.round(optimized.getDistance() * 10.0) / 10.0);
+            route.setEstimatedTime(distanceProvider.travelTime(optimized.getDistance()));
+        }
+        RoutePlan saved = routePlanRepo.save(route);
+        feed.routeUpdated(saved.getScheduleDate(), new RoutePlanDTO(saved));
+        return ResponseEntity.ok(toModel(saved));
+    }
+
     @Operation(summary = "Usuń plan trasy po ID")
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Plan trasy usunięty"),
         @ApiResponse(responseCode = "404", description = "Plan trasy nie znaleziony")
     })
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteRoutePlan(@PathVariable Long id) {
-        if (!routePlanRepo.existsById(id)) {
-            throw new ResponseStatusException(
+        RouteCarDay route = routePlanRepo.findCarDayById(id)
+            .orElseThrow(() -> new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
                 "Nie można usunąć. Plan trasy nie znaleziony z ID: " + id
-            );
-        }
+            ));
+        // The route's parcels are deleted with it.
+        List<Amount> parcels = parcelRepo.findSnapshotsByRoutePlanId(id).stream()
+            .map(Amount::of)
+            .toList();
         routePlanRepo.deleteById(id);
+        stats.removed(parcels);
+        addressIndex.remove(id);
+        fleetIndex.removeRoute(id);
+        feed.routeDeleted(route.getScheduleDate(), id);
+        dispatchSummaries.evict(route.getScheduleDate());
         return ResponseEntity.noContent().build();
     }
 
@@ -124,6 +247,7 @@ public class RoutePlanController {
         @ApiResponse(responseCode = "404", description = "Brak planów trasy dla tej daty")
     })
     @GetMapping("/date/{date}")
+    @SqlBudget(3)
     public ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> getByScheduleDate(
             @PathVariable String date) {
         LocalDate d = LocalDate.parse(date);
@@ -137,6 +261,65 @@ public class RoutePlanController {
         return wrapList(list);
     }
 
+    @Operation(summary = "Subskrybuj zmiany planów trasy i przesyłek na dzień (Server-Sent Events)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Strumień zdarzeń 'route' i 'parcel' ze zmianami "
+            + "(CREATED, UPDATED, DELETED) oraz 'resync', gdy część zmian pominięto")
+    })
+    @GetMapping(value = "/date/{date}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SqlBudget(0)
+    public SseEmitter streamByScheduleDate(@PathVariable String date) {
+        return feed.subscribe(LocalDate.parse(date));
+    }
+
+    @Operation(summary = "Pobierz podsumowanie planu wysyłek na dzień")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Liczba przesyłek, waga, cena i wykorzystanie "
+            + "ładowności każdej trasy, z oznaczeniem przeciążonych",
+            content = @Content(schema = @Schema(implementation = DispatchSummaryDTO.class)))
+    })
+    @GetMapping("/date/{date}/dispatch-summary")
+    @SqlBudget(1)
+    public ResponseEntity<DispatchSummaryDTO> getDispatchSummary(@PathVariable String date) {
+        return ResponseEntity.ok(dispatchSummaries.get(LocalDate.parse(date)));
+    }
+
+    @Operation(summary = "Wyznacz przydział pojazdów do tras na dzień (lub zakres dni)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Plan przydziału; przy commit=true zapisany, "
+            + "a trasy bez pojazdu tracą dotychczasowy pojazd",
+            content = @Content(schema = @Schema(implementation = CarAssignmentPlanDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowy zakres dat"),
+        @ApiResponse(responseCode = "409", description = "Trasy lub pojazdy zmieniły się w trakcie wyznaczania planu")
+    })
+    @PostMapping("/date/{date}/car-assignment")
+    public ResponseEntity<List<CarAssignmentPlanDTO>> assignCars(
+            @PathVariable String date,
+            @RequestParam(required = false) String until,
+            @RequestParam(defaultValue = "false") boolean commit) {
+        LocalDate from = LocalDate.parse(date);
+        LocalDate to = until != null ? LocalDate.parse(until) : from;
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "until must not be before " + date);
+        }
+        List<CarAssignmentPlanDTO> plans = carAssignmentSolver.solve(from, to);
+        if (commit) {
+            carAssignmentSolver.commit(from, to, plans);
+            for (CarAssignmentPlanDTO plan : plans) {
+                dispatchSummaries.evict(plan.getScheduleDate());
+                if (feed.watching(plan.getScheduleDate())) {
+                    routePlanRepo.findAllById(Stream.concat(
+                            plan.getAssignments().stream().map(CarAssignmentDTO::getRoutePlanId),
+                            plan.getUnassignedRoutePlanIds().stream())
+                            .toList())
+                        .forEach(route -> feed.routeUpdated(route.getScheduleDate(), new RoutePlanDTO(route)));
+                }
+            }
+        }
+        return ResponseEntity.ok(plans);
+    }
+
     @Operation(summary = "Pobierz plany trasy po punkcie startowym")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Listę planów trasy zwrócono",
@@ -146,7 +329,10 @@ public class RoutePlanController {
     @GetMapping("/start/{address}")
     public ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> getByStartLocation(
             @PathVariable String address) {
-        List<RoutePlan> list = routePlanRepo.findByStartLocation(address);
+        Address parsed = Address.parse(address);
+        List<RoutePlan> list = parsed != null
+            ? routePlanRepo.findByStartAddressPostalCodeAndStartLocation(parsed.getPostalCode(), address)
+            : List.of();
         if (list.isEmpty()) {
             throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
@@ -158,21 +344,25 @@ public class RoutePlanController {
 
     @Operation(summary = "Pobierz plany trasy zawierające fragment adresu startowego")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Listę planów trasy zwrócono",
+        @ApiResponse(responseCode = "200", description = "Strona planów trasy z linkiem 'next'",
             content = @Content(schema = @Schema(implementation = RoutePlanDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowy kursor lub rozmiar strony"),
         @ApiResponse(responseCode = "404", description = "Brak planów trasy dla tego fragmentu")
     })
     @GetMapping("/start/fragment/{fragment}")
+    @SqlBudget(4)
     public ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> getByStartFragment(
-            @PathVariable String fragment) {
-        List<RoutePlan> list = routePlanRepo.findByStartLocationContaining(fragment);
-        if (list.isEmpty()) {
+            @PathVariable String fragment,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int size) {
+        List<RoutePlan> list = findByFragment(AddressFragmentIndex.Field.START, fragment, after, size);
+        if (list.isEmpty() && after == null) {
             throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
                 "Brak planów trasy zawierających start: " + fragment
             );
         }
-        return wrapList(list);
+        return wrapPage(list, size, cursor -> methodOn(RoutePlanController.class).getByStartFragment(fragment, cursor, size), after);
     }
 
     @Operation(summary = "Pobierz plany trasy po punkcie końcowym")
@@ -184,7 +374,10 @@ public class RoutePlanController {
     @GetMapping("/end/{address}")
     public ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> getByEndLocation(
             @PathVariable String address) {
-        List<RoutePlan> list = routePlanRepo.findByEndLocation(address);
+        Address parsed = Address.parse(address);
+        List<RoutePlan> list = parsed != null
+            ? routePlanRepo.findByEndAddressPostalCodeAndEndLocation(parsed.getPostalCode(), address)
+            : List.of();
         if (list.isEmpty()) {
             throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
@@ -196,21 +389,25 @@ public class RoutePlanController {
 
     @Operation(summary = "Pobierz plany trasy zawierające fragment adresu końcowego")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Listę planów trasy zwrócono",
+        @ApiResponse(responseCode = "200", description = "Strona planów trasy z linkiem 'next'",
             content = @Content(schema = @Schema(implementation = RoutePlanDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowy kursor lub rozmiar strony"),
         @ApiResponse(responseCode = "404", description = "Brak planów trasy dla tego fragmentu")
     })
     @GetMapping("/end/fragment/{fragment}")
+    @SqlBudget(4)
     public ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> getByEndFragment(
-            @PathVariable String fragment) {
-        List<RoutePlan> list = routePlanRepo.findByEndLocationContaining(fragment);
-        if (list.isEmpty()) {
+            @PathVariable String fragment,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int size) {
+        List<RoutePlan> list = findByFragment(AddressFragmentIndex.Field.END, fragment, after, size);
+        if (list.isEmpty() && after == null) {
             throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
                 "Brak planów trasy zawierających koniec: " + fragment
             );
         }
-        return wrapList(list);
+        return wrapPage(list, size, cursor -> methodOn(RoutePlanController.class).getByEndFragment(fragment, cursor, size), after);
     }
 
     @Operation(summary = "Pobierz plany trasy po przystanku")
@@ -222,7 +419,10 @@ public class RoutePlanController {
     @GetMapping("/stop/{address}")
     public ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> getByStop(
             @PathVariable String address) {
-        List<RoutePlan> list = routePlanRepo.findByStops(address);
+        Address parsed = Address.parse(address);
+        List<RoutePlan> list = parsed != null
+            ? routePlanRepo.findByStop(parsed.getPostalCode(), address)
+            : List.of();
         if (list.isEmpty()) {
             throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
@@ -234,21 +434,69 @@ public class RoutePlanController {
 
     @Operation(summary = "Pobierz plany trasy zawierające fragment przystanku")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Listę planów trasy zwrócono",
+        @ApiResponse(responseCode = "200", description = "Strona planów trasy z linkiem 'next'",
             content = @Content(schema = @Schema(implementation = RoutePlanDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Nieprawidłowy kursor lub rozmiar strony"),
         @ApiResponse(responseCode = "404", description = "Brak planów trasy dla tego fragmentu")
     })
     @GetMapping("/stop/fragment/{fragment}")
+    @SqlBudget(4)
     public ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> getByStopFragment(
-            @PathVariable String fragment) {
-        List<RoutePlan> list = routePlanRepo.findByStopsContaining(fragment);
-        if (list.isEmpty()) {
+            @PathVariable String fragment,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int size) {
+        List<RoutePlan> list = findByFragment(AddressFragmentIndex.Field.STOP, fragment, after, size);
+        if (list.isEmpty() && after == null) {
             throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
                 "Brak planów trasy zawierających przystanek: " + fragment
             );
         }
-        return wrapList(list);
+        return wrapPage(list, size, cursor -> methodOn(RoutePlanController.class).getByStopFragment(fragment, cursor, size), after);
+    }
+
+    @Operation(summary = "Eksportuj wszystkie plany tras jako NDJSON")
+    @ApiResponse(responseCode = "200", description = "Jeden plan trasy w wierszu, odczytywany strumieniowo z bazy",
+        content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+            schema = @Schema(implementation = RoutePlanDTO.class)))
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRoutePlans() {
+        return exporter.export(this::exportRows);
+    }
+
+    // Stops and parcel IDs come from their own cursors in route order and are merged with the
+    // routes; initializing the collections would re-run the route query through their subselects.
+    private Stream<RoutePlanDTO> exportRows() {
+        Stream<RoutePlan> routes = routePlanRepo.streamAll();
+        Stream<StopAddress> stops = routePlanRepo.streamStopAddresses();
+        Stream<RouteParcel> parcels = parcelRepo.streamRouteParcels();
+        RouteRows<StopAddress, String> stopRows =
+            new RouteRows<>(stops, StopAddress::getRoutePlanId, StopAddress::getAddress);
+        RouteRows<RouteParcel, Long> parcelRows =
+            new RouteRows<>(parcels, RouteParcel::getRoutePlanId, RouteParcel::getId);
+        return routes
+            .map(r -> new RoutePlanDTO(r, stopRows.take(r.getId()), parcelRows.take(r.getId())))
+            .onClose(stops::close)
+            .onClose(parcels::close);
+    }
+
+    // A fragment too short for a trigram is looked up in the database, as before the index.
+    private List<RoutePlan> findByFragment(AddressFragmentIndex.Field field, String fragment, String after,
+            int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long afterId = Cursor.decode(after);
+        PageRequest page = PageRequest.of(0, size);
+        List<Long> ids = fragment.length() >= AddressFragmentIndex.MIN_FRAGMENT
+            ? addressIndex.find(field, fragment, afterId, size)
+            : switch (field) {
+                case START -> routePlanRepo.findIdsByStartLocationContaining(fragment, afterId, page);
+                case END -> routePlanRepo.findIdsByEndLocationContaining(fragment, afterId, page);
+                case STOP -> routePlanRepo.findIdsByStopContaining(fragment, afterId, page);
+            };
+        return ids.isEmpty() ? List.of() : routePlanRepo.findByIdInOrderByIdAsc(ids);
     }
 
     private void applyDto(RoutePlan route, RoutePlanDTO dto) {
@@ -257,40 +505,77 @@ public class RoutePlanController {
         route.setDistance(dto.getDistance());
         route.setEstimatedTime(dto.getEstimatedTime());
         route.setScheduleDate(dto.getScheduleDate());
-        route.setStops(dto.getStops());
-        if (dto.getCarId() != null) {
-            carRepo.findById(dto.getCarId()).ifPresent(route::setCar);
-        } else {
+        route.setStops(dto.getStops().stream()
+            .map(RouteStop::of)
+            .collect(Collectors.toList()));
+        Long currentCarId = route.getCar() != null ? route.getCar().getId() : null;
+        if (dto.getCarId() == null) {
             route.setCar(null);
+        } else if (!dto.getCarId().equals(currentCarId)) {
+            carRepo.findById(dto.getCarId()).ifPresent(route::setCar);
         }
-        route.getParcel().forEach(p -> p.setRoutePlan(null));
-        route.getParcel().clear();
-        if (dto.getParcelIds() != null) {
-            dto.getParcelIds().stream()
-                .map(parcelRepo::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .forEach(p -> {
-                    p.setRoutePlan(route);
-                    route.getParcel().add(p);
-                });
+    }
+
+    private RoutePlan saveWithParcels(RoutePlan route, List<Long> parcelIds) {
+        Set<Long> current = route.getId() != null
+            ? new HashSet<>(parcelRepo.findIdsByRoutePlanId(route.getId()))
+            : new HashSet<>();
+        RoutePlan saved = routePlanRepo.save(route);
+
+        Set<Long> wanted = parcelIds != null
+            ? parcelIds.stream().filter(Objects::nonNull).collect(Collectors.toSet())
+            : Set.of();
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(wanted);
+        Set<Long> added = new HashSet<>(wanted);
+        added.removeAll(current);
+        if (removed.isEmpty() && added.isEmpty()) {
+            return saved;
         }
+        if (!removed.isEmpty()) {
+            parcelRepo.detachFromRoutePlan(saved.getId(), removed);
+        }
+        if (!added.isEmpty()) {
+            List<ParcelRoute> moved = parcelRepo.findOtherRoutes(added, saved.getId());
+            parcelRepo.attachToRoutePlan(saved, added);
+            parcelsMoved(moved, saved.getScheduleDate());
+        }
+        return routePlanRepo.findById(saved.getId()).orElseThrow();
     }
 
-    private EntityModel<RoutePlanDTO> toModel(RoutePlan route) {
+    // Parcels taken from routes of another date leave that date; the routes they left change,
+    // and so do the dispatch summaries of their dates.
+    private void parcelsMoved(List<ParcelRoute> moved, LocalDate date) {
+        if (moved.isEmpty()) {
+            return;
+        }
+        Set<Long> watchedRoutes = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (ParcelRoute parcel : moved) {
+            dates.add(parcel.getScheduleDate());
+            if (!parcel.getScheduleDate().equals(date)) {
+                feed.parcelDeleted(parcel.getScheduleDate(), parcel.getParcelId());
+            }
+            if (feed.watching(parcel.getScheduleDate())) {
+                watchedRoutes.add(parcel.getRoutePlanId());
+            }
+        }
+        routePlanRepo.findAllById(watchedRoutes).forEach(route ->
+            feed.routeUpdated(route.getScheduleDate(), new RoutePlanDTO(route)));
+        dispatchSummaries.evict(dates.toArray(LocalDate[]::new));
+    }
+
+    EntityModel<RoutePlanDTO> toModel(RoutePlan route) {
         RoutePlanDTO dto = new RoutePlanDTO(route);
         EntityModel<RoutePlanDTO> model = EntityModel.of(dto,
-            linkTo(methodOn(RoutePlanController.class)
-                .getRoutePlan(route.getId())).withSelfRel()
+            links.routePlan(route.getId()).withSelfRel()
         );
         if (route.getCar() != null) {
-            model.add(linkTo(methodOn(CarController.class)
-                .getCarByRegistrationNumber(route.getCar().getRegistrationNumber()))
+            model.add(links.car(route.getCar().getRegistrationNumber())
                 .withRel("car"));
         }
         dto.getParcelIds().forEach(pid ->
-            model.add(linkTo(methodOn(ParcelController.class)
-                .getParcel(pid)).withRel("parcel"))
+            model.add(links.parcel(pid).withRel("parcel"))
         );
         return model;
     }
@@ -302,4 +587,46 @@ public class RoutePlanController {
             .collect(Collectors.toList());
         return ResponseEntity.ok(CollectionModel.of(models));
     }
+
+    // Self and, after a full page, next links; page maps a cursor to the handler invocation.
+    private ResponseEntity<CollectionModel<EntityModel<RoutePlanDTO>>> wrapPage(
+            List<RoutePlan> list, int size, Function<String, Object> page, String after) {
+        List<EntityModel<RoutePlanDTO>> models = list.stream()
+            .map(this::toModel)
+            .collect(Collectors.toList());
+        CollectionModel<EntityModel<RoutePlanDTO>> model = CollectionModel.of(models,
+            linkTo(page.apply(after)).withSelfRel());
+        if (list.size() == size) {
+            String next = Cursor.encode(list.get(list.size() - 1).getId());
+            model.add(linkTo(page.apply(next)).withRel("next"));
+        }
+        return ResponseEntity.ok(model);
+    }
+
+    /** Rows of a stream ordered by route ID, handed out route by route. */
+    private static final class RouteRows<T, V> {
+        private final Iterator<T> rows;
+        private final Function<T, Long> routeId;
+        private final Function<T, V> value;
+        private T next;
+
+        RouteRows(Stream<T> rows, Function<T, Long> routeId, Function<T, V> value) {
+            this.rows = rows.iterator();
+            this.routeId = routeId;
+            this.value = value;
+            this.next = this.rows.hasNext() ? this.rows.next() : null;
+        }
+
+        // Rows of routes that are not in the route stream (removed meanwhile) are skipped.
+        List<V> take(long id) {
+            List<V> values = new ArrayList<>();
+            while (next != null && routeId.apply(next) <= id) {
+                if (routeId.apply(next) == id) {
+                    values.add(value.apply(next));
+                }
+                next = rows.hasNext() ? rows.next() : null;
+            }
+            return values;
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package pl.polsl.courier.management.system.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "CacheStatsDTO", description = "Statystyki pamięci podręcznej")
+public class CacheStatsDTO {
+
+    @Schema(description = "Nazwa pamięci podręcznej", example = "carsByRegistration")
+    private String name;
+
+    @Schema(description = "Przybliżona liczba wpisów", example = "42")
+    private long size;
+
+    @Schema(description = "Liczba trafień", example = "1200")
+    private long hits;
+
+    @Schema(description = "Liczba chybień", example = "42")
+    private long misses;
+
+    @Schema(description = "Odsetek trafień", example = "0.97")
+    private double hitRate;
+
+    @Schema(description = "Liczba wpisów usuniętych przez limit rozmiaru lub czasu", example = "0")
+    private long evictions;
+
+    public CacheStatsDTO(String name, long size, CacheStats stats) {
+        this.name = name;
+        this.size = size;
+        this.hits = stats.hitCount();
+        this.misses = stats.missCount();
+        this.hitRate = stats.hitRate();
+        this.evictions = stats.evictionCount();
+    }
+}
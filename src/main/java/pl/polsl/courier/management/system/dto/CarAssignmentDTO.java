@@ -0,0 +1,21 @@
+package pl.polsl.courier.management.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "CarAssignmentDTO", description = "Przypisanie pojazdu do planu trasy")
+public class CarAssignmentDTO {
+    @Schema(description = "ID planu trasy", example = "7")
+    private Long routePlanId;
+
+    @Schema(description = "ID przypisanego pojazdu", example = "1")
+    private Long carId;
+
+    @Schema(description = "Łączna waga przesyłek na trasie (kg)", example = "850.5")
+    private double load;
+}
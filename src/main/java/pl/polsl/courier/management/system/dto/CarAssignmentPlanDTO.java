@@ -0,0 +1,27 @@
+package pl.polsl.courier.management.system.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "CarAssignmentPlanDTO", description = "Plan przydziału pojazdów do tras na dany dzień")
+public class CarAssignmentPlanDTO {
+    @Schema(description = "Data realizacji", example = "2025-06-17")
+    private LocalDate scheduleDate;
+
+    @Schema(description = "Liczba użytych pojazdów", example = "12")
+    private int carsUsed;
+
+    @Schema(description = "Przypisania pojazdów do tras")
+    private List<CarAssignmentDTO> assignments;
+
+    @Schema(description = "ID tras, dla których nie znaleziono pojazdu", example = "[42]")
+    private List<Long> unassignedRoutePlanIds;
+}
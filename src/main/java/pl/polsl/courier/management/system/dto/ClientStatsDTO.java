@@ -0,0 +1,26 @@
+package pl.polsl.courier.management.system.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ClientStatsDTO", description = "Statystyki przesyłek klienta")
+public class ClientStatsDTO {
+    @Schema(description = "ID klienta", example = "1")
+    private Long clientId;
+
+    @Schema(description = "Liczba przesyłek klienta", example = "37")
+    private long parcelCount;
+
+    @Schema(description = "Łączna waga przesyłek (kg)", example = "412.350")
+    private BigDecimal totalWeight;
+
+    @Schema(description = "Łączna cena przesyłek (PLN)", example = "1894.50")
+    private BigDecimal totalPrice;
+}
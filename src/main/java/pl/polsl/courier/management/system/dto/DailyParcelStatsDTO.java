@@ -0,0 +1,27 @@
+package pl.polsl.courier.management.system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "DailyParcelStatsDTO", description = "Statystyki przesyłek nadanych danego dnia")
+public class DailyParcelStatsDTO {
+    @Schema(description = "Data nadania", example = "2025-05-12")
+    private LocalDate dispatchDate;
+
+    @Schema(description = "Liczba przesyłek", example = "9800")
+    private long parcelCount;
+
+    @Schema(description = "Łączna waga przesyłek (kg)", example = "154300.250")
+    private BigDecimal totalWeight;
+
+    @Schema(description = "Łączna cena przesyłek (PLN)", example = "512870.40")
+    private BigDecimal totalPrice;
+}
@@ -0,0 +1,40 @@
+package pl.polsl.courier.management.system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "DispatchSummaryDTO", description = "Podsumowanie planu wysyłek na dany dzień")
+public class DispatchSummaryDTO {
+    @Schema(description = "Data realizacji", example = "2025-06-17")
+    private LocalDate scheduleDate;
+
+    @Schema(description = "Liczba tras", example = "120")
+    private int routeCount;
+
+    @Schema(description = "Liczba przesyłek na wszystkich trasach", example = "5400")
+    private long parcelCount;
+
+    @Schema(description = "Łączna waga przesyłek (kg)", example = "98250.75")
+    private BigDecimal totalWeight;
+
+    @Schema(description = "Łączna cena przesyłek (PLN)", example = "286400.00")
+    private BigDecimal totalPrice;
+
+    @Schema(description = "Liczba tras bez przypisanego pojazdu", example = "3")
+    private int routesWithoutCar;
+
+    @Schema(description = "ID tras przeciążonych względem ładowności pojazdu", example = "[42]")
+    private List<Long> overloadedRoutePlanIds;
+
+    @Schema(description = "Trasy w kolejności ID")
+    private List<RouteDispatchDTO> routes;
+}
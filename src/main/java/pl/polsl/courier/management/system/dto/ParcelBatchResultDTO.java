@@ -0,0 +1,24 @@
+package pl.polsl.courier.management.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ParcelBatchResultDTO", description = "Wynik dodania pojedynczej przesyłki z partii")
+public class ParcelBatchResultDTO {
+    @Schema(description = "Pozycja przesyłki w żądaniu", example = "0")
+    private int index;
+
+    @Schema(description = "Kod statusu HTTP dla tej pozycji", example = "201")
+    private int status;
+
+    @Schema(description = "ID utworzonej przesyłki", example = "100")
+    private Long id;
+
+    @Schema(description = "Opis błędu, jeśli przesyłka została odrzucona", example = "weight: weight must not be null")
+    private String message;
+}
@@ -1,6 +1,7 @@
 package pl.polsl.courier.management.system.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -42,11 +43,13 @@ public class ParcelDTO {
 
     @NotNull(message = "weight must not be null")
     @DecimalMin(value = "0.0", inclusive = true, message = "weight must be at least 0")
+    @Digits(integer = 36, fraction = 2, message = "weight must have at most 2 decimal places")
     @Schema(description = "Waga (kg)", example = "2.5")
     private BigDecimal weight;
 
     @NotNull(message = "price must not be null")
     @DecimalMin(value = "0.0", inclusive = true, message = "price must be at least 0")
+    @Digits(integer = 36, fraction = 2, message = "price must have at most 2 decimal places")
     @Schema(description = "Cena (PLN)", example = "50.00")
     private BigDecimal price;
 
@@ -0,0 +1,34 @@
+package pl.polsl.courier.management.system.dto;
+
+import jakarta.validation.constraints.NotNull;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.polsl.courier.management.system.tracking.ParcelEvent;
+import pl.polsl.courier.management.system.tracking.ParcelEventType;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ParcelEventDTO", description = "Zdarzenie śledzenia przesyłki")
+public class ParcelEventDTO {
+    @Schema(description = "ID przesyłki", example = "100", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long parcelId;
+
+    @NotNull(message = "type must not be null")
+    @Schema(description = "Typ zdarzenia", example = "AT_HUB")
+    private ParcelEventType type;
+
+    @Schema(description = "Data i godzina zdarzenia (domyślnie bieżąca, z dokładnością do milisekund)",
+        example = "2025-06-15T11:20:00")
+    private LocalDateTime time;
+
+    public ParcelEventDTO(ParcelEvent event) {
+        this.parcelId = event.parcelId();
+        this.type = event.type();
+        this.time = event.time();
+    }
+}
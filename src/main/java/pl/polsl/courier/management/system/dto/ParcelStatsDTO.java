@@ -0,0 +1,34 @@
+package pl.polsl.courier.management.system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ParcelStatsDTO", description = "Statystyki przesyłek nadanych w zakresie dat")
+public class ParcelStatsDTO {
+    @Schema(description = "Początek zakresu dat nadania (włącznie)", example = "2025-05-01")
+    private LocalDate from;
+
+    @Schema(description = "Koniec zakresu dat nadania (włącznie)", example = "2025-05-31")
+    private LocalDate to;
+
+    @Schema(description = "Liczba przesyłek w zakresie", example = "300000")
+    private long parcelCount;
+
+    @Schema(description = "Łączna waga przesyłek (kg)", example = "4729105.500")
+    private BigDecimal totalWeight;
+
+    @Schema(description = "Łączna cena przesyłek (PLN)", example = "15861240.75")
+    private BigDecimal totalPrice;
+
+    @Schema(description = "Dni z przesyłkami, w kolejności dat")
+    private List<DailyParcelStatsDTO> days;
+}
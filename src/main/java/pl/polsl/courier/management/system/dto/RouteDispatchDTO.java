@@ -0,0 +1,41 @@
+package pl.polsl.courier.management.system.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "RouteDispatchDTO", description = "Obciążenie jednej trasy w planie dnia")
+public class RouteDispatchDTO {
+    @Schema(description = "ID planu trasy", example = "7")
+    private Long routePlanId;
+
+    @Schema(description = "ID przypisanego pojazdu (brak, gdy trasa nie ma pojazdu)", example = "1")
+    private Long carId;
+
+    @Schema(description = "Numer rejestracyjny pojazdu", example = "SK 12345")
+    private String registrationNumber;
+
+    @Schema(description = "Liczba przesyłek na trasie", example = "48")
+    private long parcelCount;
+
+    @Schema(description = "Łączna waga przesyłek (kg)", example = "850.50")
+    private BigDecimal totalWeight;
+
+    @Schema(description = "Łączna cena przesyłek (PLN)", example = "2400.00")
+    private BigDecimal totalPrice;
+
+    @Schema(description = "Ładowność pojazdu (kg)", example = "1500.0")
+    private Double capacity;
+
+    @Schema(description = "Wykorzystanie ładowności (waga / ładowność)", example = "0.567")
+    private Double utilisation;
+
+    @Schema(description = "Czy waga przesyłek przekracza ładowność pojazdu", example = "false")
+    private boolean overloaded;
+}
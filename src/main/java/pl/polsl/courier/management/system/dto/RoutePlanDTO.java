@@ -11,6 +11,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import pl.polsl.courier.management.system.entity.Parcel;
 import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.entity.RouteStop;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -65,6 +66,19 @@ public class RoutePlanDTO {
       Long
     > parcelIds;
 
+    /** Route with its stops and parcel IDs read separately, leaving both collections untouched. */
+    public RoutePlanDTO(RoutePlan r, List<String> stops, List<Long> parcelIds) {
+        this.id = r.getId();
+        this.startLocation = r.getStartLocation();
+        this.endLocation = r.getEndLocation();
+        this.distance = r.getDistance();
+        this.estimatedTime = r.getEstimatedTime();
+        this.scheduleDate = r.getScheduleDate();
+        this.stops = stops;
+        this.carId = r.getCar() != null ? r.getCar().getId() : null;
+        this.parcelIds = parcelIds;
+    }
+
     public RoutePlanDTO(RoutePlan r) {
         this.id = r.getId();
         this.startLocation = r.getStartLocation();
@@ -72,7 +86,9 @@ public class RoutePlanDTO {
         this.distance = r.getDistance();
         this.estimatedTime = r.getEstimatedTime();
         this.scheduleDate = r.getScheduleDate();
-        this.stops = r.getStops();
+        this.stops = r.getStops().stream()
+                     .map(RouteStop::getAddress)
+                     .collect(Collectors.toList());
         this.carId = r.getCar() != null ? r.getCar().getId() : null;
         this.parcelIds = r.getParcel().stream()
                          .map(Parcel::getId)
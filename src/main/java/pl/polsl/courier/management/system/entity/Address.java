@@ -0,0 +1,42 @@
+package pl.polsl.courier.management.system.entity;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Address", description = "Adres rozbity na ulicę, kod pocztowy i miasto")
+public class Address {
+
+    public static final Pattern FORMAT = Pattern.compile("^\\s*([^,]+?)\\s*,\\s*(\\d{2}-\\d{3})\\s+(.+?)\\s*$");
+
+    @Column(name = "street")
+    @Schema(description = "Ulica i numer", example = "ul. Przykładowa 10")
+    private String street;
+
+    @Column(name = "postal_code", length = 6)
+    @Schema(description = "Kod pocztowy", example = "00-950")
+    private String postalCode;
+
+    @Column(name = "city")
+    @Schema(description = "Miasto", example = "Warszawa")
+    private String city;
+
+    /** Splits 'ul. Przykładowa 10, 00-950 Warszawa'; returns null for any other format. */
+    public static Address parse(String address) {
+        if (address == null) {
+            return null;
+        }
+        Matcher m = FORMAT.matcher(address);
+        return m.matches() ? new Address(m.group(1), m.group(2), m.group(3)) : null;
+    }
+}
@@ -3,6 +3,7 @@ package pl.polsl.courier.management.system.entity;
 import java.util.ArrayList;
 import java.util.List;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,12 +14,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Table(
   name = "client",
   uniqueConstraints = {
-    @UniqueConstraint(columnNames = "email"),
-    @UniqueConstraint(columnNames = "phone_number")
+    @UniqueConstraint(name = Client.EMAIL_CONSTRAINT, columnNames = "email"),
+    @UniqueConstraint(name = Client.PHONE_NUMBER_CONSTRAINT, columnNames = "phone_number")
+  },
+  indexes = {
+    @Index(name = "idx_client_postal_code", columnList = "postal_code"),
+    @Index(name = "idx_client_city", columnList = "city")
   }
 )
 @Schema(name = "Client", description = "Dane klienta korzystającego z usług kurierskich")
 public class Client {
+    public static final String EMAIL_CONSTRAINT = "uk_client_email";
+    public static final String PHONE_NUMBER_CONSTRAINT = "uk_client_phone_number";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Schema(description = "Unikalny identyfikator klienta", example = "42")
@@ -30,17 +38,27 @@ public class Client {
     @Schema(description = "Nazwisko klienta", example = "Kowalski")
     private String lastName;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     @Schema(description = "Email klienta", example = "jan.kowalski@example.com")
     private String email;
 
-    @Column(name = "phone_number", nullable = false, unique = true)
+    @Column(name = "phone_number", nullable = false)
     @Schema(description = "Numer telefonu", example = "+48123123123")
     private String phoneNumber;
 
     @Schema(description = "Adres klienta", example = "ul. Przykładowa 10, 00-950 Warszawa")
     private String address;
 
+    @Embedded
+    @Setter(AccessLevel.NONE)
+    @Schema(description = "Adres klienta w postaci strukturalnej")
+    private Address location;
+
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Parcel> parcels = new ArrayList<>();
+
+    public void setAddress(String address) {
+        this.address = address;
+        this.location = Address.parse(address);
+    }
 }
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,10 +12,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Entity
 @Getter
 @Setter
+@Table(
+  name = "parcel",
+  indexes = {
+    @Index(name = "idx_parcel_recipient_postal_code", columnList = "recipient_postal_code"),
+    @Index(name = "idx_parcel_recipient_city", columnList = "recipient_city")
+  }
+)
 @Schema(name = "Parcel", description = "Przesyłka transportowana przez system")
 public class Parcel {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parcel_seq")
+    @SequenceGenerator(name = "parcel_seq", sequenceName = "PARCEL_SEQ", allocationSize = 50)
     @Schema(description = "Unikalny identyfikator przesyłki", example = "100")
     private Long id;
 
@@ -24,9 +33,29 @@ public class Parcel {
     @Schema(description = "Adres nadawcy", example = "ul. Nadawcza 5, 00-001 Warszawa")
     private String senderAddress;
 
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "street", column = @Column(name = "sender_street")),
+        @AttributeOverride(name = "postalCode", column = @Column(name = "sender_postal_code", length = 6)),
+        @AttributeOverride(name = "city", column = @Column(name = "sender_city"))
+    })
+    @Setter(AccessLevel.NONE)
+    @Schema(description = "Adres nadawcy w postaci strukturalnej")
+    private Address sender;
+
     @Schema(description = "Adres odbiorcy", example = "ul. Odbiorcza 8, 00-002 Warszawa")
     private String recipientAddress;
 
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "street", column = @Column(name = "recipient_street")),
+        @AttributeOverride(name = "postalCode", column = @Column(name = "recipient_postal_code", length = 6)),
+        @AttributeOverride(name = "city", column = @Column(name = "recipient_city"))
+    })
+    @Setter(AccessLevel.NONE)
+    @Schema(description = "Adres odbiorcy w postaci strukturalnej")
+    private Address recipient;
+
     @Schema(description = "Data i godzina nadania", example = "2025-06-15T09:30:00")
     private LocalDateTime dispatchDate;
 
@@ -40,12 +69,22 @@ public class Parcel {
     private BigDecimal price;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
     private Client client;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "route_plan_id")
     private RoutePlan routePlan;
+
+    public void setSenderAddress(String senderAddress) {
+        this.senderAddress = senderAddress;
+        this.sender = Address.parse(senderAddress);
+    }
+
+    public void setRecipientAddress(String recipientAddress) {
+        this.recipientAddress = recipientAddress;
+        this.recipient = Address.parse(recipientAddress);
+    }
 }
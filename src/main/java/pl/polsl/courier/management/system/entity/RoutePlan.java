@@ -4,7 +4,11 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import jakarta.persistence.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,6 +16,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Entity
 @Getter
 @Setter
+@Table(
+  name = "route_plan",
+  indexes = {
+    @Index(name = "idx_route_plan_start_postal_code", columnList = "start_postal_code"),
+    @Index(name = "idx_route_plan_start_city", columnList = "start_city"),
+    @Index(name = "idx_route_plan_end_postal_code", columnList = "end_postal_code"),
+    @Index(name = "idx_route_plan_end_city", columnList = "end_city")
+  }
+)
 @Schema(name = "RoutePlan", description = "Plan trasy realizacji przesyłek")
 public class RoutePlan {
     @Id
@@ -26,6 +39,16 @@ public class RoutePlan {
     @Schema(description = "Punkt startowy trasy", example = "ul. Startowa 1, 00-001 Warszawa")
     private String startLocation;
 
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "street", column = @Column(name = "start_street")),
+        @AttributeOverride(name = "postalCode", column = @Column(name = "start_postal_code", length = 6)),
+        @AttributeOverride(name = "city", column = @Column(name = "start_city"))
+    })
+    @Setter(AccessLevel.NONE)
+    @Schema(description = "Punkt startowy w postaci strukturalnej")
+    private Address startAddress;
+
     @Pattern(
       regexp = "^[^,]+,\\s*\\d{2}-\\d{3}\\s+.+$",
       message = "Format: 'ul. Przykładowa 10, 00-950 Warszawa'"
@@ -33,6 +56,16 @@ public class RoutePlan {
     @Schema(description = "Punkt końcowy trasy", example = "ul. Końcowa 2, 00-002 Warszawa")
     private String endLocation;
 
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "street", column = @Column(name = "end_street")),
+        @AttributeOverride(name = "postalCode", column = @Column(name = "end_postal_code", length = 6)),
+        @AttributeOverride(name = "city", column = @Column(name = "end_city"))
+    })
+    @Setter(AccessLevel.NONE)
+    @Schema(description = "Punkt końcowy w postaci strukturalnej")
+    private Address endAddress;
+
     @Schema(description = "Długość trasy w kilometrach", example = "15.4")
     private Double distance;
 
@@ -44,26 +77,36 @@ public class RoutePlan {
     private LocalDate scheduleDate;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(
         name = "route_stops",
-        joinColumns = @JoinColumn(name = "route_plan_id")
+        joinColumns = @JoinColumn(name = "route_plan_id"),
+        indexes = {
+            @Index(name = "idx_route_stops_postal_code", columnList = "postal_code"),
+            @Index(name = "idx_route_stops_city", columnList = "city")
+        }
     )
-    @Column(name = "stop_address")
+    @OrderColumn(name = "stop_order")
     @Schema(description = "Lista przystanków na trasie")
-    private List<
-      @Pattern(
-        regexp = "^[^,]+,\\s*\\d{2}-\\d{3}\\s+.+$",
-        message = "Format: 'ul. Przykładowa 10, 00-950 Warszawa'"
-      )
-      String
-    > stops;
+    private List<@Valid RouteStop> stops;
 
     @OneToMany(mappedBy = "routePlan", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Fetch(FetchMode.SUBSELECT)
     @Schema(description = "Przesyłki powiązane z tą trasą")
     private List<Parcel> parcel = new ArrayList<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id")
     @Schema(description = "Przypisany pojazd do trasy")
     private Car car;
+
+    public void setStartLocation(String startLocation) {
+        this.startLocation = startLocation;
+        this.startAddress = Address.parse(startLocation);
+    }
+
+    public void setEndLocation(String endLocation) {
+        this.endLocation = endLocation;
+        this.endAddress = Address.parse(endLocation);
+    }
 }
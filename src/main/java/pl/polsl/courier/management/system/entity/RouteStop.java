@@ -0,0 +1,34 @@
+package pl.polsl.courier.management.system.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Embedded;
+import jakarta.validation.constraints.Pattern;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@Schema(name = "RouteStop", description = "Przystanek na trasie")
+public class RouteStop {
+
+    @Pattern(
+      regexp = "^[^,]+,\\s*\\d{2}-\\d{3}\\s+.+$",
+      message = "Format: 'ul. Przykładowa 10, 00-950 Warszawa'"
+    )
+    @Column(name = "stop_address")
+    @Schema(description = "Adres przystanku", example = "ul. Przykładowa 10, 00-950 Warszawa")
+    private String address;
+
+    @Embedded
+    private Address location;
+
+    public static RouteStop of(String address) {
+        RouteStop stop = new RouteStop();
+        stop.address = address;
+        stop.location = Address.parse(address);
+        return stop;
+    }
+}
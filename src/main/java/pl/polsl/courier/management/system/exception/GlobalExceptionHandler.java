@@ -3,6 +3,7 @@ package pl.polsl.courier.management.system.exception;
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,8 +21,12 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import jakarta.validation.ConstraintViolationException;
 
+import pl.polsl.courier.management.system.entity.Client;
+
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -32,6 +37,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @RestControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    public static final String ERRORS_METRIC = "courier.errors";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Operation(summary = "Obsługa wszystkich nieoczekiwanych błędów")
     @ApiResponse(responseCode = "500", description = "Internal Server Error",
       content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
@@ -44,6 +54,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             ex.getMessage(),
             request.getDescription(false)
         );
+        count(HttpStatus.INTERNAL_SERVER_ERROR, ex);
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
@@ -68,6 +79,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             errors,
             request.getDescription(false)
         );
+        count(status, ex);
         return new ResponseEntity<>(body, headers, status);
     }
 
@@ -89,6 +101,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             cause,
             request.getDescription(false)
         );
+        count(status, ex);
         return new ResponseEntity<>(body, headers, status);
     }
 
@@ -110,6 +123,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             msg,
             request.getDescription(false)
         );
+        count(status, ex);
         return new ResponseEntity<>(body, headers, status);
     }
 
@@ -131,6 +145,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             msg,
             request.getDescription(false)
         );
+        count(status, ex);
         return new ResponseEntity<>(body, headers, status);
     }
 
@@ -152,6 +167,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             msg,
             request.getDescription(false)
         );
+        count(status, ex);
         return new ResponseEntity<>(body, headers, status);
     }
 
@@ -174,6 +190,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             msg,
             request.getDescription(false)
         );
+        count(HttpStatus.BAD_REQUEST, ex);
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
@@ -195,6 +212,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             ex.getReason(),
             request.getDescription(false)
         );
+        count(ex.getStatusCode(), ex);
         return new ResponseEntity<>(body, ex.getStatusCode());
     }
 
@@ -206,12 +224,15 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             DataIntegrityViolationException ex,
             WebRequest request) {
 
-        Throwable root = ex.getMostSpecificCause();
+        String constraint = violatedConstraint(ex);
         String userMessage = "The operation failed due to a data conflict.";
 
-        if (root != null && root.getMessage() != null
-            && root.getMessage().toLowerCase().contains("constraint")) {
-            userMessage = "The email address you provided is already in use";
+        // Some databases (H2) name the backing index and its columns instead of the constraint.
+        if (constraint.contains(Client.EMAIL_CONSTRAINT) || constraint.contains("client(email")) {
+            userMessage = "Email already in use";
+        } else if (constraint.contains(Client.PHONE_NUMBER_CONSTRAINT)
+                || constraint.contains("client(phone_number")) {
+            userMessage = "Phone number already in use";
         }
 
         ErrorResponse body = new ErrorResponse(
@@ -221,6 +242,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             userMessage,
             request.getDescription(false)
         );
+        count(HttpStatus.CONFLICT, ex);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
@@ -242,6 +264,38 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             errors,
             request.getDescription(false)
         );
+        count(HttpStatus.BAD_REQUEST, ex);
         return ResponseEntity.badRequest().body(body);
     }
+
+    // Spring MVC exceptions without an override above still end up here.
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            Exception ex,
+            Object body,
+            HttpHeaders headers,
+            HttpStatusCode statusCode,
+            WebRequest request) {
+
+        count(statusCode, ex);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
+    private void count(HttpStatusCode status, Exception ex) {
+        meterRegistry.counter(ERRORS_METRIC,
+            "status", String.valueOf(status.value()),
+            "exception", ex.getClass().getSimpleName()
+        ).increment();
+    }
+
+    private static String violatedConstraint(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase();
+            }
+        }
+        Throwable root = ex.getMostSpecificCause();
+        return root.getMessage() != null ? root.getMessage().toLowerCase() : "";
+    }
 }
@@ -0,0 +1,325 @@
+package pl.polsl.courier.management.system.feed;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import pl.polsl.courier.management.system.dto.ParcelDTO;
+import pl.polsl.courier.management.system.dto.RoutePlanDTO;
+import pl.polsl.courier.management.system.search.AfterCommit;
+
+/**
+ * Broadcasts route and parcel changes to Server-Sent Events subscribers of a schedule date.
+ * Publishing never blocks: once the transaction commits, the delta is put into the buffer of
+ * every subscriber of its date, and a subscriber with something buffered is drained by one
+ * task on a pool of {@code courier.feed.senders} platform threads. Idle connections hold no
+ * thread at all. The senders are not virtual threads: {@code SseEmitter.send} is synchronized
+ * and writes to the socket, so a slow client would pin the carrier thread. A task sends one
+ * batch and queues itself again, so a slow client delays the others by one write at most.
+ *
+ * <p>A buffer keeps the latest delta per route or parcel, so repeated changes of one entity
+ * collapse into one event. When more than {@code courier.feed.buffer} entities are pending,
+ * the oldest delta is dropped and the subscriber gets a {@code resync} event, telling it to
+ * reload {@code GET /route/date/{date}}. Every {@code courier.feed.heartbeat} subscribers get
+ * a comment, which also finds connections that went away.
+ */
+@Slf4j
+@Component
+public class RouteFeed {
+
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+
+    /** Data of a {@code route} or {@code parcel} event; a deletion carries the ID only. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Delta(Change change, Long id, Object data) {
+    }
+
+    private static final String ROUTE = "route";
+    private static final String PARCEL = "parcel";
+    private static final String RESYNC = "resync";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${courier.feed.buffer:256}")
+    private int bufferSize;
+
+    @Value("${courier.feed.senders:4}")
+    private int senderThreads;
+
+    @Value("${courier.feed.heartbeat:15s}")
+    private Duration heartbeat;
+
+    @Value("${courier.feed.timeout:30m}")
+    private Duration timeout;
+
+    private final Map<LocalDate, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private ExecutorService senders;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "route-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Counter dropped;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, task -> {
+            Thread thread = new Thread(task, "route-feed-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("route.feed.subscribers", subscribers,
+                s -> s.values().stream().mapToInt(Set::size).sum())
+            .register(meterRegistry);
+        dropped = meterRegistry.counter("route.feed.dropped");
+        heartbeats.scheduleWithFixedDelay(this::heartbeat,
+            heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdown();
+    }
+
+    public SseEmitter subscribe(LocalDate date) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(date, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        try {
+            // Sent with the response headers, so the client sees the stream open right away.
+            emitter.send(SseEmitter.event().comment("subscribed to " + date));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.compute(date, (d, set) -> {
+            Set<Subscriber> watching = set != null ? set : ConcurrentHashMap.newKeySet();
+            watching.add(subscriber);
+            return watching;
+        });
+        return emitter;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public boolean watching(LocalDate date) {
+        return date != null && subscribers.containsKey(date);
+    }
+
+    public void routeCreated(RoutePlanDTO route) {
+        publish(route.getScheduleDate(), ROUTE, Change.CREATED, route.getId(), route);
+    }
+
+    /** Publishes the route to its date, and a deletion to the date it was moved away from. */
+    public void routeUpdated(LocalDate previousDate, RoutePlanDTO route) {
+        if (previousDate != null && !previousDate.equals(route.getScheduleDate())) {
+            publish(previousDate, ROUTE, Change.DELETED, route.getId(), null);
+        }
+        publish(route.getScheduleDate(), ROUTE, Change.UPDATED, route.getId(), route);
+    }
+
+    public void routeDeleted(LocalDate date, Long id) {
+        publish(date, ROUTE, Change.DELETED, id, null);
+    }
+
+    /** A parcel belongs to the date of its route plan; parcels without one are not published. */
+    public void parcelCreated(LocalDate date, ParcelDTO parcel) {
+        publish(date, PARCEL, Change.CREATED, parcel.getId(), parcel);
+    }
+
+    public void parcelUpdated(LocalDate previousDate, LocalDate date, ParcelDTO parcel) {
+        if (previousDate != null && !previousDate.equals(date)) {
+            publish(previousDate, PARCEL, Change.DELETED, parcel.getId(), null);
+        }
+        publish(date, PARCEL, Change.UPDATED, parcel.getId(), parcel);
+    }
+
+    public void parcelDeleted(LocalDate date, Long id) {
+        publish(date, PARCEL, Change.DELETED, id, null);
+    }
+
+    private void publish(LocalDate date, String kind, Change change, Long id, Object data) {
+        if (date == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            Set<Subscriber> watching = subscribers.get(date);
+            if (watching == null) {
+                return;
+            }
+            Event event = new Event(kind, sequence.incrementAndGet(), new Delta(change, id, data));
+            watching.forEach(subscriber -> subscriber.offer(event));
+        });
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::ping));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.date, (d, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private record Event(String kind, long sequence, Delta delta) {
+
+        String key() {
+            return kind + ':' + delta.id();
+        }
+    }
+
+    private final class Subscriber {
+        private final LocalDate date;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Guarded by lock. Latest event per entity, in the order of their last change.
+        private final LinkedHashMap<String, Event> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean pingDue;
+        private boolean draining;
+
+        Subscriber(LocalDate date, SseEmitter emitter) {
+            this.date = date;
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            lock.lock();
+            try {
+                pending.remove(event.key());
+                pending.put(event.key(), event);
+                if (pending.size() > bufferSize) {
+                    Iterator<Event> oldest = pending.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    overflowed = true;
+                    dropped.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+        }
+
+        void ping() {
+            lock.lock();
+            try {
+                pingDue = true;
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+        }
+
+        // At most one drain per subscriber is queued or running.
+        private void schedule() {
+            lock.lock();
+            try {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            senders.execute(this::drain);
+        }
+
+        // Sends what is buffered, then queues itself again if more arrived meanwhile.
+        private void drain() {
+            List<Event> events;
+            boolean resync;
+            boolean ping;
+            lock.lock();
+            try {
+                if (pending.isEmpty() && !overflowed && !pingDue) {
+                    draining = false;
+                    return;
+                }
+                events = new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflowed;
+                ping = pingDue;
+                overflowed = false;
+                pingDue = false;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (resync) {
+                    emitter.send(SseEmitter.event().name(RESYNC).data(date.toString()));
+                }
+                for (Event event : events) {
+                    emitter.send(SseEmitter.event()
+                        .name(event.kind())
+                        .id(Long.toString(event.sequence()))
+                        .data(event.delta(), MediaType.APPLICATION_JSON));
+                }
+                if (ping && events.isEmpty() && !resync) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone. draining stays set, so nothing is scheduled for it again.
+                log.debug("Dropping route feed subscriber for {}: {}", date, e.toString());
+                remove(this);
+                completeWithError(e);
+                return;
+            }
+            if (!senders.isShutdown()) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // Ends the async request now instead of at the timeout; fails if it is already over.
+        private void completeWithError(Exception e) {
+            try {
+                emitter.completeWithError(e);
+            } catch (IllegalStateException alreadyCompleted) {
+                log.trace("Route feed emitter for {} already completed", date);
+            }
+        }
+    }
+}
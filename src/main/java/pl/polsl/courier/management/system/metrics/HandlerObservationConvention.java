@@ -0,0 +1,37 @@
+package pl.polsl.courier.management.system.metrics;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/**
+ * Adds a {@code handler} tag ({@code ParcelController.getParcel}) to {@code http.server.requests},
+ * so every controller method gets its own timer. Requests served outside the
+ * {@code controller} package are tagged {@code none}.
+ */
+@Component
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final String CONTROLLER_PACKAGE = "pl.polsl.courier.management.system.controller";
+    private static final KeyValue NONE = KeyValue.of("handler", "none");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier() != null
+                && context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                    instanceof HandlerMethod method
+                && method.getBeanType().getPackageName().equals(CONTROLLER_PACKAGE)) {
+            return KeyValue.of("handler", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,19 @@
+package pl.polsl.courier.management.system.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a controller method may run per request. Methods without it
+ * (and without one on their class) get {@code courier.sql.budget}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface SqlBudget {
+
+    int value();
+}
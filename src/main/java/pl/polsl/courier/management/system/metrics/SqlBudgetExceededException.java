@@ -0,0 +1,8 @@
+package pl.polsl.courier.management.system.metrics;
+
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String endpoint, int budget, String sql) {
+        super(String.format("%s exceeded its budget of %d SQL statements at: %s", endpoint, budget, sql));
+    }
+}
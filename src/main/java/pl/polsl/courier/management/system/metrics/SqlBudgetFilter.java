@@ -0,0 +1,108 @@
+package pl.polsl.courier.management.system.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opens a statement tally for every request, logs a warning when the request ran more statements
+ * than its budget and, with {@code courier.sql.header=true}, reports the count in
+ * {@value #HEADER}. The header is written just before the body, so it covers every statement
+ * run by the controller.
+ */
+@Slf4j
+@Component
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Count";
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Value("${courier.sql.header:false}")
+    private boolean header;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return counter.mode() == SqlStatementCounter.Mode.OFF && !header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Tally tally = counter.begin(request.getMethod() + " " + request.getRequestURI());
+        CountingResponse counting = header ? new CountingResponse(response, tally) : null;
+        try {
+            chain.doFilter(request, counting != null ? counting : response);
+        } finally {
+            counter.end();
+        }
+        if (counting != null) {
+            counting.writeHeader();
+        }
+        if (tally.overBudget() && counter.mode() != SqlStatementCounter.Mode.OFF) {
+            log.warn("{} ran {} SQL statements, budget is {}", tally.endpoint, tally.count, tally.budget);
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementCounter.Tally tally;
+        private boolean written;
+
+        CountingResponse(HttpServletResponse response, SqlStatementCounter.Tally tally) {
+            super(response);
+            this.tally = tally;
+        }
+
+        void writeHeader() {
+            if (!written && !isCommitted()) {
+                setIntHeader(HEADER, tally.count);
+            }
+            written = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package pl.polsl.courier.management.system.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the {@link SqlBudget} of the matched controller method to the current request and
+ * names the tally after the route pattern, e.g. {@code GET /client/{id}}.
+ */
+@Component
+public class SqlBudgetInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            SqlBudget budget = method.getMethodAnnotation(SqlBudget.class);
+            if (budget == null) {
+                budget = method.getBeanType().getAnnotation(SqlBudget.class);
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            counter.declare(endpoint, budget);
+        }
+        return true;
+    }
+}
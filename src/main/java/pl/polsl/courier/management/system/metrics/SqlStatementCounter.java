@@ -0,0 +1,83 @@
+package pl.polsl.courier.management.system.metrics;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a request is being
+ * served. {@link SqlBudgetFilter} opens and closes the tally; outside a request nothing is counted.
+ * In {@code enforce} mode the statement that goes over budget fails with
+ * {@link SqlBudgetExceededException}, so a test exercising the endpoint fails on the spot.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    public enum Mode { OFF, WARN, ENFORCE }
+
+    static final class Tally {
+        int count;
+        int budget;
+        String endpoint;
+
+        Tally(int budget, String endpoint) {
+            this.budget = budget;
+            this.endpoint = endpoint;
+        }
+
+        boolean overBudget() {
+            return count > budget;
+        }
+    }
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    @Value("${courier.sql.mode:warn}")
+    private Mode mode;
+
+    @Value("${courier.sql.budget:20}")
+    private int defaultBudget;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Tally tally = CURRENT.get();
+        if (tally != null && ++tally.count > tally.budget && mode == Mode.ENFORCE) {
+            throw new SqlBudgetExceededException(tally.endpoint, tally.budget, sql);
+        }
+        return sql;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    Tally begin(String endpoint) {
+        Tally tally = new Tally(defaultBudget, endpoint);
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    /** Names the tally of the current request after its handler and applies the handler's budget, if any. */
+    void declare(String endpoint, SqlBudget budget) {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.endpoint = endpoint;
+            if (budget != null) {
+                tally.budget = budget.value();
+            }
+        }
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+}
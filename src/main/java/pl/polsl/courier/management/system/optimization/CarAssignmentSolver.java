@@ -0,0 +1,354 @@
+package pl.polsl.courier.management.system.optimization;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import pl.polsl.courier.management.system.dto.CarAssignmentDTO;
+import pl.polsl.courier.management.system.dto.CarAssignmentPlanDTO;
+import pl.polsl.courier.management.system.entity.Car;
+import pl.polsl.courier.management.system.repository.CarRepository;
+import pl.polsl.courier.management.system.repository.RouteLoad;
+import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+import pl.polsl.courier.management.system.search.FleetAvailabilityIndex;
+
+/**
+ * Assigns cars to the route plans of each day as a bin-packing problem. A route fits a car
+ * when its parcel weight is within the car's capacity; a car takes several routes as long as
+ * their estimated times fit into one shift. First-fit-decreasing builds the plan, then local
+ * search frees lightly used cars and places routes that did not fit. Days are independent
+ * and solved in parallel.
+ */
+@Component
+public class CarAssignmentSolver {
+
+    private static final int MAX_ROUNDS = 50;
+    private static final int SWAP_ATTEMPTS_PER_ROUND = 20_000;
+
+    @Autowired
+    private RoutePlanRepository routePlanRepo;
+    @Autowired
+    private CarRepository carRepo;
+    @Autowired
+    private FleetAvailabilityIndex fleetIndex;
+
+    @Value("${courier.fleet.shift-minutes:480}")
+    private int shiftMinutes;
+
+    public List<CarAssignmentPlanDTO> solve(LocalDate from, LocalDate to) {
+        Map<LocalDate, List<RouteLoad>> byDate = routePlanRepo.findRouteLoads(from, to).stream()
+            .collect(Collectors.groupingBy(RouteLoad::getScheduleDate, TreeMap::new, Collectors.toList()));
+        List<Car> cars = StreamSupport.stream(carRepo.findAll().spliterator(), false)
+            .sorted(Comparator.comparingDouble(Car::getCapacity))
+            .collect(Collectors.toList());
+        return byDate.entrySet().parallelStream()
+            .map(e -> new DayProblem(e.getKey(), e.getValue(), cars, shiftMinutes).solve())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Saves the plans of the days from {@code from} to {@code to}: each route gets its planned
+     * car, and routes left unassigned lose theirs, as the plan may have given it to another
+     * route. The plans are checked against the routes as they are now and rejected with a 409
+     * when a route was added, removed or changed so that a car would be overloaded.
+     */
+    @Transactional
+    public void commit(LocalDate from, LocalDate to, List<CarAssignmentPlanDTO> plans) {
+        Map<Long, RouteLoad> routes = routePlanRepo.findRouteLoads(from, to).stream()
+            .collect(Collectors.toMap(RouteLoad::getId, Function.identity()));
+        Map<Long, List<Long>> routesByCar = plans.stream()
+            .flatMap(plan -> plan.getAssignments().stream())
+            .collect(Collectors.groupingBy(CarAssignmentDTO::getCarId,
+                Collectors.mapping(CarAssignmentDTO::getRoutePlanId, Collectors.toList())));
+        List<Long> unassigned = plans.stream()
+            .flatMap(plan -> plan.getUnassignedRoutePlanIds().stream())
+            .toList();
+        Map<Long, Car> cars = StreamSupport.stream(carRepo.findAllById(routesByCar.keySet()).spliterator(), false)
+            .collect(Collectors.toMap(Car::getId, Function.identity()));
+        verify(routes, routesByCar, unassigned.size(), cars);
+
+        routesByCar.forEach((carId, routeIds) -> routePlanRepo.assignCar(cars.get(carId), routeIds));
+        if (!unassigned.isEmpty()) {
+            routePlanRepo.clearCar(unassigned);
+        }
+        plans.forEach(plan -> {
+            plan.getAssignments().forEach(a ->
+                fleetIndex.putRoute(a.getRoutePlanId(), plan.getScheduleDate(), a.getCarId()));
+            plan.getUnassignedRoutePlanIds().forEach(fleetIndex::removeRoute);
+        });
+    }
+
+    // The solver ran outside this transaction, so every route, load and shift is checked again.
+    private void verify(Map<Long, RouteLoad> routes, Map<Long, List<Long>> routesByCar, int unassigned,
+            Map<Long, Car> cars) {
+        int planned = unassigned + routesByCar.values().stream().mapToInt(List::size).sum();
+        if (planned != routes.size()) {
+            throw stale("routes were added or deleted");
+        }
+        for (Map.Entry<Long, List<Long>> entry : routesByCar.entrySet()) {
+            Car car = cars.get(entry.getKey());
+            if (car == null) {
+                throw stale("car " + entry.getKey() + " was deleted");
+            }
+            Map<LocalDate, Integer> minutes = new TreeMap<>();
+            Map<LocalDate, Integer> count = new TreeMap<>();
+            for (Long routeId : entry.getValue()) {
+                RouteLoad route = routes.get(routeId);
+                if (route == null) {
+                    throw stale("route " + routeId + " was deleted or moved to another day");
+                }
+                double load = route.getLoad() != null ? route.getLoad().doubleValue() : 0.0;
+                if (load > car.getCapacity() * 1000.0) {
+                    throw stale("route " + routeId + " no longer fits car " + car.getId());
+                }
+                minutes.merge(route.getScheduleDate(),
+                    route.getEstimatedTime() != null ? route.getEstimatedTime() : 0, Integer::sum);
+                count.merge(route.getScheduleDate(), 1, Integer::sum);
+            }
+            minutes.forEach((date, total) -> {
+                if (count.get(date) > 1 && total > shiftMinutes) {
+                    throw stale("routes of car " + car.getId() + " on " + date + " no longer fit one shift");
+                }
+            });
+        }
+    }
+
+    private static ResponseStatusException stale(String reason) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+            "Plan przydziału jest nieaktualny (" + reason + "), wyznacz go ponownie");
+    }
+
+    private static final class DayProblem {
+        private final LocalDate date;
+        private final long[] routeIds;
+        private final double[] load;
+        private final int[] minutes;
+        private final long[] carIds;
+        private final double[] capacity;
+        private final int shift;
+
+        private final int[] carOf;
+        private final int[] used;
+        private final List<List<Integer>> routesOf;
+
+        DayProblem(LocalDate date, List<RouteLoad> routes, List<Car> cars, int shift) {
+            this.date = date;
+            this.shift = shift;
+            int r = routes.size();
+            routeIds = new long[r];
+            load = new double[r];
+            minutes = new int[r];
+            for (int i = 0; i < r; i++) {
+                RouteLoad route = routes.get(i);
+                BigDecimal weight = route.getLoad();
+                routeIds[i] = route.getId();
+                load[i] = weight != null ? weight.doubleValue() : 0.0;
+                minutes[i] = route.getEstimatedTime() != null ? route.getEstimatedTime() : 0;
+            }
+            int c = cars.size();
+            carIds = new long[c];
+            capacity = new double[c];
+            for (int k = 0; k < c; k++) {
+                carIds[k] = cars.get(k).getId();
+                capacity[k] = cars.get(k).getCapacity() * 1000.0;
+            }
+            carOf = new int[r];
+            Arrays.fill(carOf, -1);
+            used = new int[c];
+            routesOf = new ArrayList<>(c);
+            for (int k = 0; k < c; k++) {
+                routesOf.add(new ArrayList<>());
+            }
+        }
+
+        CarAssignmentPlanDTO solve() {
+            firstFitDecreasing();
+            for (int round = 0; round < MAX_ROUNDS; round++) {
+                boolean changed = placeUnassigned();
+                changed |= releaseCars();
+                if (!changed) {
+                    break;
+                }
+            }
+            return toPlan();
+        }
+
+        private void firstFitDecreasing() {
+            Integer[] order = new Integer[routeIds.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> load[a] != load[b]
+                ? Double.compare(load[b], load[a])
+                : Integer.compare(minutes[b], minutes[a]));
+            List<Integer> open = new ArrayList<>();
+            for (int route : order) {
+                int chosen = -1;
+                for (int car : open) {
+                    if (fits(route, car)) {
+                        chosen = car;
+                        break;
+                    }
+                }
+                if (chosen < 0) {
+                    for (int car = 0; car < carIds.length; car++) {
+                        if (routesOf.get(car).isEmpty() && fits(route, car)) {
+                            chosen = car;
+                            open.add(car);
+                            break;
+                        }
+                    }
+                }
+                if (chosen >= 0) {
+                    assign(route, chosen);
+                }
+            }
+        }
+
+        // Tries to fit each unassigned route directly, or by moving one route off a car
+        // that could carry it into some other car.
+        private boolean placeUnassigned() {
+            boolean changed = false;
+            int attempts = SWAP_ATTEMPTS_PER_ROUND;
+            for (int route = 0; route < routeIds.length; route++) {
+                if (carOf[route] >= 0) {
+                    continue;
+                }
+                int direct = findCar(route, -1);
+                if (direct >= 0) {
+                    assign(route, direct);
+                    changed = true;
+                    continue;
+                }
+                swap:
+                for (int car = 0; car < carIds.length && attempts > 0; car++) {
+                    if (capacity[car] < load[route]) {
+                        continue;
+                    }
+                    for (int other : new ArrayList<>(routesOf.get(car))) {
+                        if (shift - used[car] + minutes[other] < minutes[route]) {
+                            continue;
+                        }
+                        if (--attempts < 0) {
+                            break swap;
+                        }
+                        unassign(other);
+                        int target = findCar(other, car);
+                        if (target >= 0 && fits(route, car)) {
+                            assign(other, target);
+                            assign(route, car);
+                            changed = true;
+                            break swap;
+                        }
+                        assign(other, car);
+                    }
+                }
+            }
+            return changed;
+        }
+
+        // Empties the least used cars when all of their routes fit elsewhere.
+        private boolean releaseCars() {
+            Integer[] cars = new Integer[carIds.length];
+            for (int k = 0; k < cars.length; k++) {
+                cars[k] = k;
+            }
+            Arrays.sort(cars, Comparator.comparingInt(k -> used[k]));
+            boolean changed = false;
+            for (int car : cars) {
+                List<Integer> routes = new ArrayList<>(routesOf.get(car));
+                if (routes.isEmpty()) {
+                    continue;
+                }
+                routes.forEach(this::unassign);
+                List<Integer> moved = new ArrayList<>();
+                for (int route : routes) {
+                    int target = findOpenCar(route, car);
+                    if (target < 0) {
+                        break;
+                    }
+                    assign(route, target);
+                    moved.add(route);
+                }
+                if (moved.size() == routes.size()) {
+                    changed = true;
+                } else {
+                    moved.forEach(this::unassign);
+                    routes.forEach(route -> assign(route, car));
+                }
+            }
+            return changed;
+        }
+
+        private int findCar(int route, int excluded) {
+            int open = findOpenCar(route, excluded);
+            if (open >= 0) {
+                return open;
+            }
+            for (int car = 0; car < carIds.length; car++) {
+                if (car != excluded && fits(route, car)) {
+                    return car;
+                }
+            }
+            return -1;
+        }
+
+        private int findOpenCar(int route, int excluded) {
+            for (int car = 0; car < carIds.length; car++) {
+                if (car != excluded && !routesOf.get(car).isEmpty() && fits(route, car)) {
+                    return car;
+                }
+            }
+            return -1;
+        }
+
+        private boolean fits(int route, int car) {
+            return capacity[car] >= load[route]
+                && (routesOf.get(car).isEmpty() || used[car] + minutes[route] <= shift);
+        }
+
+        private void assign(int route, int car) {
+            carOf[route] = car;
+            used[car] += minutes[route];
+            routesOf.get(car).add(route);
+        }
+
+        private void unassign(int route) {
+            int car = carOf[route];
+            carOf[route] = -1;
+            used[car] -= minutes[route];
+            routesOf.get(car).remove(Integer.valueOf(route));
+        }
+
+        private CarAssignmentPlanDTO toPlan() {
+            List<CarAssignmentDTO> assignments = new ArrayList<>();
+            List<Long> unassigned = new ArrayList<>();
+            for (int route = 0; route < routeIds.length; route++) {
+                if (carOf[route] >= 0) {
+                    assignments.add(new CarAssignmentDTO(routeIds[route], carIds[carOf[route]], load[route]));
+                } else {
+                    unassigned.add(routeIds[route]);
+                }
+            }
+            assignments.sort(Comparator.comparing(CarAssignmentDTO::getRoutePlanId));
+            unassigned.sort(Comparator.naturalOrder());
+            int carsUsed = (int) routesOf.stream().filter(routes -> !routes.isEmpty()).count();
+            return new CarAssignmentPlanDTO(date, carsUsed, assignments, unassigned);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package pl.polsl.courier.management.system.optimization;
+
+import java.util.List;
+
+public interface DistanceProvider {
+
+    /** Road distance in kilometres between two addresses. */
+    double distance(String from, String to);
+
+    /** Driving time in minutes for the given distance. */
+    int travelTime(double distanceKm);
+
+    /** Whether distances are real road distances, fit to be stored as a route's distance and time. */
+    boolean roadDistances();
+
+    default double[][] matrix(List<String> addresses) {
+        int n = addresses.size();
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double d = distance(addresses.get(i), addresses.get(j));
+                dist[i][j] = d;
+                dist[j][i] = d;
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,14 @@
+package pl.polsl.courier.management.system.optimization;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OptimizedRoute {
+    /** Indices into the original stop list, in visiting order. */
+    private final int[] stopOrder;
+
+    /** Total distance from start through all stops to end. */
+    private final double distance;
+}
@@ -0,0 +1,101 @@
+package pl.polsl.courier.management.system.optimization;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import pl.polsl.courier.management.system.entity.Address;
+
+/**
+ * Coarse distance estimate derived from Polish postal codes only. The first digit selects
+ * the postal zone hub, the second the district within it. Good enough to order stops;
+ * swap in a geocoded implementation when real coordinates become available. Not road
+ * distances, so they are never stored on a route. Addresses must be in {@link Address} format.
+ */
+@Component
+public class PostalZoneDistanceProvider implements DistanceProvider {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double ROAD_FACTOR = 1.25;
+    private static final double DISTRICT_KM = 10.0;
+    private static final double SAME_DISTRICT_KM = 3.0;
+    private static final double SAME_CODE_KM = 1.0;
+
+    // Zone hubs indexed by the first postal digit: Warszawa, Olsztyn, Lublin, Kraków, Katowice,
+    // Wrocław, Poznań, Szczecin, Gdańsk, Łódź.
+    private static final double[][] ZONE_HUBS = {
+        {52.2297, 21.0122}, {53.7784, 20.4801}, {51.2465, 22.5684}, {50.0647, 19.9450},
+        {50.2649, 19.0238}, {51.1079, 17.0385}, {52.4064, 16.9252}, {53.4285, 14.5528},
+        {54.3520, 18.6466}, {51.7592, 19.4560}
+    };
+
+    @Value("${courier.route.average-speed-kmh:50}")
+    private double averageSpeedKmh;
+
+    @Override
+    public double distance(String from, String to) {
+        return from.equals(to) ? 0.0 : between(postalCode(from), postalCode(to));
+    }
+
+    // Each address is parsed once rather than once per pair.
+    @Override
+    public double[][] matrix(List<String> addresses) {
+        int n = addresses.size();
+        String[] codes = new String[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = postalCode(addresses.get(i));
+        }
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double d = addresses.get(i).equals(addresses.get(j)) ? 0.0 : between(codes[i], codes[j]);
+                dist[i][j] = d;
+                dist[j][i] = d;
+            }
+        }
+        return dist;
+    }
+
+    @Override
+    public boolean roadDistances() {
+        return false;
+    }
+
+    private static String postalCode(String address) {
+        Address parsed = Address.parse(address);
+        if (parsed == null) {
+            throw new IllegalArgumentException("Nieprawidłowy adres: " + address);
+        }
+        return parsed.getPostalCode();
+    }
+
+    // Postal codes are 'dd-ddd'.
+    private static double between(String a, String b) {
+        int zoneA = a.charAt(0) - '0';
+        int zoneB = b.charAt(0) - '0';
+        if (zoneA != zoneB) {
+            return haversine(ZONE_HUBS[zoneA], ZONE_HUBS[zoneB]) * ROAD_FACTOR;
+        }
+        int districtA = a.charAt(1) - '0';
+        int districtB = b.charAt(1) - '0';
+        if (districtA != districtB) {
+            return Math.abs(districtA - districtB) * DISTRICT_KM;
+        }
+        return a.equals(b) ? SAME_CODE_KM : SAME_DISTRICT_KM;
+    }
+
+    @Override
+    public int travelTime(double distanceKm) {
+        return (int) Math.round(distanceKm / averageSpeedKmh * 60.0);
+    }
+
+    private static double haversine(double[] p, double[] q) {
+        double dLat = Math.toRadians(q[0] - p[0]);
+        double dLon = Math.toRadians(q[1] - p[1]);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(p[0])) * Math.cos(Math.toRadians(q[0]))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(h));
+    }
+}
@@ -0,0 +1,219 @@
+package pl.polsl.courier.management.system.optimization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Orders the stops of an open path with fixed endpoints. Each restart builds a randomised
+ * nearest-neighbour tour and improves it with 2-opt and Or-opt until no move helps; restarts
+ * run in parallel and the shortest result wins. The distance matrix must be symmetric, with
+ * node 0 as the start and the last node as the end.
+ */
+@Component
+public class RouteOptimizer {
+
+    private static final double EPS = 1e-9;
+    private static final int MAX_SEGMENT = 3;
+    private static final int CANDIDATES = 3;
+
+    @Value("${courier.route.optimizer.restarts:16}")
+    private int restarts;
+
+    @Value("${courier.route.optimizer.parallelism:0}")
+    private int parallelism;
+
+    @Value("${courier.route.optimizer.seed:42}")
+    private long seed;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    public OptimizedRoute optimize(double[][] dist) {
+        int n = dist.length;
+        if (n < 2) {
+            throw new IllegalArgumentException("Distance matrix must contain start and end");
+        }
+        if (n <= 3) {
+            return toResult(identity(n), dist);
+        }
+        int runs = Math.max(1, restarts);
+        List<Callable<int[]>> tasks = new ArrayList<>(runs);
+        for (int r = 0; r < runs; r++) {
+            SplittableRandom random = new SplittableRandom(seed + r);
+            boolean greedy = r == 0;
+            tasks.add(() -> improve(construct(dist, random, greedy), dist));
+        }
+        int[] best = pool.invokeAll(tasks).stream()
+            .map(RouteOptimizer::join)
+            .min(Comparator.comparingDouble(tour -> length(tour, dist)))
+            .orElseThrow();
+        return toResult(best, dist);
+    }
+
+    private static int[] construct(double[][] dist, SplittableRandom random, boolean greedy) {
+        int n = dist.length;
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        tour[0] = 0;
+        tour[n - 1] = n - 1;
+        visited[0] = true;
+        visited[n - 1] = true;
+        int[] nearest = new int[CANDIDATES];
+        for (int pos = 1; pos < n - 1; pos++) {
+            int current = tour[pos - 1];
+            int found = 0;
+            for (int node = 1; node < n - 1; node++) {
+                if (visited[node]) {
+                    continue;
+                }
+                int k;
+                if (found < CANDIDATES) {
+                    k = found++;
+                } else if (dist[current][node] < dist[current][nearest[CANDIDATES - 1]]) {
+                    k = CANDIDATES - 1;
+                } else {
+                    continue;
+                }
+                nearest[k] = node;
+                for (; k > 0 && dist[current][nearest[k - 1]] > dist[current][nearest[k]]; k--) {
+                    int tmp = nearest[k - 1];
+                    nearest[k - 1] = nearest[k];
+                    nearest[k] = tmp;
+                }
+            }
+            int next = greedy ? nearest[0] : nearest[random.nextInt(found)];
+            tour[pos] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    private static int[] improve(int[] tour, double[][] dist) {
+        boolean improved = true;
+        while (improved) {
+            improved = twoOpt(tour, dist);
+            improved |= orOpt(tour, dist);
+        }
+        return tour;
+    }
+
+    private static boolean twoOpt(int[] t, double[][] d) {
+        int n = t.length;
+        boolean improved = false;
+        for (int i = 1; i < n - 2; i++) {
+            for (int j = i + 1; j < n - 1; j++) {
+                double delta = d[t[i - 1]][t[j]] + d[t[i]][t[j + 1]]
+                    - d[t[i - 1]][t[i]] - d[t[j]][t[j + 1]];
+                if (delta < -EPS) {
+                    reverse(t, i, j);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private static boolean orOpt(int[] t, double[][] d) {
+        int n = t.length;
+        boolean improved = false;
+        for (int len = 1; len <= MAX_SEGMENT; len++) {
+            for (int i = 1; i + len < n; i++) {
+                int first = t[i];
+                int last = t[i + len - 1];
+                int prev = t[i - 1];
+                int next = t[i + len];
+                double removeGain = d[prev][first] + d[last][next] - d[prev][next];
+                for (int j = 0; j < n - 1; j++) {
+                    if (j >= i - 1 && j < i + len) {
+                        continue;
+                    }
+                    int a = t[j];
+                    int b = t[j + 1];
+                    double forward = d[a][first] + d[last][b] - d[a][b];
+                    double backward = d[a][last] + d[first][b] - d[a][b];
+                    boolean reversed = backward < forward;
+                    if (Math.min(forward, backward) - removeGain < -EPS) {
+                        moveSegment(t, i, len, j, reversed);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    private static void moveSegment(int[] t, int start, int len, int after, boolean reversed) {
+        int[] segment = new int[len];
+        for (int k = 0; k < len; k++) {
+            segment[k] = t[reversed ? start + len - 1 - k : start + k];
+        }
+        if (after < start) {
+            System.arraycopy(t, after + 1, t, after + 1 + len, start - after - 1);
+            System.arraycopy(segment, 0, t, after + 1, len);
+        } else {
+            System.arraycopy(t, start + len, t, start, after - start - len + 1);
+            System.arraycopy(segment, 0, t, after - len + 1, len);
+        }
+    }
+
+    private static void reverse(int[] t, int i, int j) {
+        while (i < j) {
+            int tmp = t[i];
+            t[i++] = t[j];
+            t[j--] = tmp;
+        }
+    }
+
+    private static double length(int[] tour, double[][] dist) {
+        double total = 0.0;
+        for (int k = 1; k < tour.length; k++) {
+            total += dist[tour[k - 1]][tour[k]];
+        }
+        return total;
+    }
+
+    private static int[] identity(int n) {
+        int[] tour = new int[n];
+        for (int k = 0; k < n; k++) {
+            tour[k] = k;
+        }
+        return tour;
+    }
+
+    private static OptimizedRoute toResult(int[] tour, double[][] dist) {
+        int[] stopOrder = new int[tour.length - 2];
+        for (int k = 1; k < tour.length - 1; k++) {
+            stopOrder[k - 1] = tour[k] - 1;
+        }
+        return new OptimizedRoute(stopOrder, length(tour, dist));
+    }
+
+    private static int[] join(Future<int[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Route optimisation failed", e);
+        }
+    }
+}
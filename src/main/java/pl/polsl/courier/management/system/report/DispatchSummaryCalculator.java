@@ -0,0 +1,113 @@
+package pl.polsl.courier.management.system.report;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import pl.polsl.courier.management.system.dto.DispatchSummaryDTO;
+import pl.polsl.courier.management.system.dto.RouteDispatchDTO;
+import pl.polsl.courier.management.system.repository.RouteDispatchRow;
+import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+
+/**
+ * Parcel count, weight, price and car utilisation of every route of a day. One query streams
+ * a row per parcel ordered by route, with weight and price already in grams and grosze; they
+ * are copied into two long arrays, each route owning a contiguous run, and the runs are
+ * summed in parallel. A route is overloaded when its parcels weigh more than the car's
+ * capacity, which is kept in tonnes.
+ */
+@Component
+public class DispatchSummaryCalculator {
+
+    @Autowired
+    private RoutePlanRepository routePlanRepo;
+
+    @Transactional(readOnly = true)
+    public DispatchSummaryDTO summarize(LocalDate date) {
+        List<Route> routes = new ArrayList<>();
+        Amounts amounts = new Amounts();
+        try (Stream<RouteDispatchRow> rows = routePlanRepo.streamDispatchRows(date)) {
+            rows.forEach(row -> {
+                if (routes.isEmpty() || !routes.get(routes.size() - 1).id().equals(row.getRoutePlanId())) {
+                    routes.add(new Route(row.getRoutePlanId(), row.getCarId(), row.getRegistrationNumber(),
+                        row.getCapacity(), amounts.size));
+                }
+                if (row.getParcelId() != null) {
+                    amounts.add(row.getGrams(), row.getGrosze());
+                }
+            });
+        }
+
+        List<RouteDispatchDTO> summaries = IntStream.range(0, routes.size())
+            .parallel()
+            .mapToObj(i -> summarize(routes.get(i),
+                i + 1 < routes.size() ? routes.get(i + 1).from() : amounts.size, amounts))
+            .collect(Collectors.toList());
+
+        int withoutCar = 0;
+        List<Long> overloaded = new ArrayList<>();
+        for (RouteDispatchDTO route : summaries) {
+            if (route.getCarId() == null) {
+                withoutCar++;
+            }
+            if (route.isOverloaded()) {
+                overloaded.add(route.getRoutePlanId());
+            }
+        }
+        return new DispatchSummaryDTO(date, routes.size(), amounts.size, FixedPoint.kilograms(amounts.totalGrams),
+            FixedPoint.zloty(amounts.totalGrosze), withoutCar, overloaded, summaries);
+    }
+
+    private static RouteDispatchDTO summarize(Route route, int to, Amounts amounts) {
+        long grams = 0;
+        long grosze = 0;
+        for (int i = route.from(); i < to; i++) {
+            grams += amounts.grams[i];
+            grosze += amounts.grosze[i];
+        }
+        Double capacity = null;
+        Double utilisation = null;
+        boolean overloaded = false;
+        if (route.capacity() != null) {
+            double capacityGrams = route.capacity() * 1_000_000.0;
+            capacity = route.capacity() * 1000.0;
+            utilisation = capacityGrams > 0 ? Math.round(grams / capacityGrams * 1000.0) / 1000.0 : null;
+            overloaded = grams > capacityGrams;
+        }
+        return new RouteDispatchDTO(route.id(), route.carId(), route.registrationNumber(), to - route.from(),
+            FixedPoint.kilograms(grams), FixedPoint.zloty(grosze), capacity, utilisation, overloaded);
+    }
+
+    /** A route and the index of its first parcel in {@link Amounts}. */
+    private record Route(Long id, Long carId, String registrationNumber, Double capacity, int from) {
+    }
+
+    /** Weight and price of every parcel, in grams and grosze; a missing value counts as 0. */
+    private static final class Amounts {
+        private long[] grams = new long[1024];
+        private long[] grosze = new long[1024];
+        private int size;
+        private long totalGrams;
+        private long totalGrosze;
+
+        void add(Long weight, Long price) {
+            if (size == grams.length) {
+                grams = Arrays.copyOf(grams, size * 2);
+                grosze = Arrays.copyOf(grosze, size * 2);
+            }
+            grams[size] = weight != null ? weight : 0L;
+            grosze[size] = price != null ? price : 0L;
+            totalGrams += grams[size];
+            totalGrosze += grosze[size];
+            size++;
+        }
+    }
+}
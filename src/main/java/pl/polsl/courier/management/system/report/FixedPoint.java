@@ -0,0 +1,33 @@
+package pl.polsl.courier.management.system.report;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Weights and prices as longs for aggregation: grams and grosze. Both columns keep two
+ * decimals, so the conversion is exact, and a sum stays exact up to about 9.2 trillion tonnes
+ * or 92 quadrillion złoty. Values go back to {@link BigDecimal} only for the response.
+ */
+public final class FixedPoint {
+
+    private FixedPoint() {
+    }
+
+    /** Grams in the weight in kilograms, rounded half up; 0 for null. */
+    public static long grams(BigDecimal kilograms) {
+        return kilograms == null ? 0L : kilograms.movePointRight(3).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /** Grosze in the price in złoty, rounded half up; 0 for null. */
+    public static long grosze(BigDecimal zloty) {
+        return zloty == null ? 0L : zloty.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal kilograms(long grams) {
+        return BigDecimal.valueOf(grams, 3);
+    }
+
+    public static BigDecimal zloty(long grosze) {
+        return BigDecimal.valueOf(grosze, 2);
+    }
+}
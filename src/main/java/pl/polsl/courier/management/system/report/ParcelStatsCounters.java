@@ -0,0 +1,293 @@
+package pl.polsl.courier.management.system.report;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import pl.polsl.courier.management.system.dto.ClientStatsDTO;
+import pl.polsl.courier.management.system.dto.DailyParcelStatsDTO;
+import pl.polsl.courier.management.system.dto.ParcelStatsDTO;
+import pl.polsl.courier.management.system.entity.Parcel;
+import pl.polsl.courier.management.system.repository.ParcelRepository;
+import pl.polsl.courier.management.system.repository.ParcelSnapshot;
+import pl.polsl.courier.management.system.repository.ParcelTotals;
+import pl.polsl.courier.management.system.search.AfterCommit;
+
+/**
+ * Parcel count, weight and price per client and per dispatch day, kept up to date by every
+ * parcel change instead of scanning the table per request. Amounts are grams and grosze in
+ * {@link LongAdder}s, so concurrent changes of one client or day do not contend on a lock.
+ *
+ * <p>The counters are rebuilt from the database when the application is ready and reconciled
+ * every {@code courier.stats.reconcile-interval}: a key that no change touched while the sums
+ * were queried gets the difference added. Touched keys are left for the next run, as a change
+ * committed around the query may or may not be in its result.
+ */
+@Slf4j
+@Component
+public class ParcelStatsCounters {
+
+    @Autowired
+    private ParcelRepository parcelRepo;
+
+    @Value("${courier.stats.reconcile-interval:10m}")
+    private Duration reconcileInterval;
+
+    private final Map<Long, Totals> byClient = new ConcurrentHashMap<>();
+    private final NavigableMap<LocalDate, Totals> byDay = new ConcurrentSkipListMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // Guarded by reconcileLock.
+    private boolean scheduled;
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "parcel-stats-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** One parcel's share of the counters; a null client or day is not counted there. */
+    public record Amount(Long clientId, LocalDate day, long grams, long grosze) {
+
+        public static Amount of(Parcel parcel) {
+            return new Amount(parcel.getClient() != null ? parcel.getClient().getId() : null,
+                day(parcel.getDispatchDate()), FixedPoint.grams(parcel.getWeight()),
+                FixedPoint.grosze(parcel.getPrice()));
+        }
+
+        public static Amount of(ParcelSnapshot parcel) {
+            return new Amount(parcel.getClientId(), day(parcel.getDispatchDate()),
+                parcel.getGrams() != null ? parcel.getGrams() : 0L,
+                parcel.getGrosze() != null ? parcel.getGrosze() : 0L);
+        }
+
+        public Amount withDispatchDate(LocalDateTime dispatchDate) {
+            return new Amount(clientId, day(dispatchDate), grams, grosze);
+        }
+
+        private static LocalDate day(LocalDateTime time) {
+            return time != null ? time.toLocalDate() : null;
+        }
+    }
+
+    /** Totals as plain numbers, read from the adders one after another. */
+    private record Snapshot(long parcels, long grams, long grosze) {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0);
+
+        Snapshot plus(Snapshot other) {
+            return new Snapshot(parcels + other.parcels, grams + other.grams, grosze + other.grosze);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        reconciler.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        reconcileLock.lock();
+        try {
+            Map<Long, Totals> clients = new HashMap<>();
+            Map<LocalDate, Totals> days = new HashMap<>();
+            parcelRepo.sumByClient().forEach(row -> clients.put(row.getClientId(), Totals.of(row)));
+            parcelRepo.sumByDay().forEach(row -> days.put(row.getDay(), Totals.of(row)));
+            byClient.clear();
+            byClient.putAll(clients);
+            byDay.clear();
+            byDay.putAll(days);
+            if (!scheduled) {
+                long interval = reconcileInterval.toMillis();
+                reconciler.scheduleWithFixedDelay(this::reconcile, interval, interval, TimeUnit.MILLISECONDS);
+                scheduled = true;
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    public void added(Amount amount) {
+        AfterCommit.run(() -> apply(amount, 1));
+    }
+
+    public void added(List<Amount> amounts) {
+        AfterCommit.run(() -> amounts.forEach(amount -> apply(amount, 1)));
+    }
+
+    public void removed(Amount amount) {
+        AfterCommit.run(() -> apply(amount, -1));
+    }
+
+    public void removed(List<Amount> amounts) {
+        AfterCommit.run(() -> amounts.forEach(amount -> apply(amount, -1)));
+    }
+
+    public void changed(Amount before, Amount after) {
+        if (!before.equals(after)) {
+            AfterCommit.run(() -> {
+                apply(before, -1);
+                apply(after, 1);
+            });
+        }
+    }
+
+    /** The client's parcels went with it; their days are corrected by a reconciliation right away. */
+    public void clientDeleted(Long clientId) {
+        AfterCommit.run(() -> {
+            byClient.remove(clientId);
+            reconciler.execute(this::reconcile);
+        });
+    }
+
+    /** Whether the client has parcels; a client with none may as well not exist. */
+    public boolean hasParcels(Long clientId) {
+        Totals totals = byClient.get(clientId);
+        return totals != null && totals.parcels.sum() > 0;
+    }
+
+    /** Zeros for a client without parcels. */
+    public ClientStatsDTO client(Long clientId) {
+        Totals totals = byClient.get(clientId);
+        Snapshot snapshot = totals != null ? totals.snapshot() : Snapshot.EMPTY;
+        return new ClientStatsDTO(clientId, snapshot.parcels(), FixedPoint.kilograms(snapshot.grams()),
+            FixedPoint.zloty(snapshot.grosze()));
+    }
+
+    /** Totals of the dispatch days in the range, inclusive, listing each day that has parcels. */
+    public ParcelStatsDTO days(LocalDate from, LocalDate to) {
+        List<DailyParcelStatsDTO> days = new ArrayList<>();
+        Snapshot total = Snapshot.EMPTY;
+        for (Map.Entry<LocalDate, Totals> entry : byDay.subMap(from, true, to, true).entrySet()) {
+            Snapshot day = entry.getValue().snapshot();
+            if (day.parcels() != 0) {
+                days.add(new DailyParcelStatsDTO(entry.getKey(), day.parcels(), FixedPoint.kilograms(day.grams()),
+                    FixedPoint.zloty(day.grosze())));
+                total = total.plus(day);
+            }
+        }
+        return new ParcelStatsDTO(from, to, total.parcels(), FixedPoint.kilograms(total.grams()),
+            FixedPoint.zloty(total.grosze()), days);
+    }
+
+    public void reconcile() {
+        if (!reconcileLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            Map<Long, Long> clientUpdates = updates(byClient);
+            Map<LocalDate, Long> dayUpdates = updates(byDay);
+            int corrected = correct(byClient, clientUpdates, parcelRepo.sumByClient(), ParcelTotals::getClientId)
+                + correct(byDay, dayUpdates, parcelRepo.sumByDay(), ParcelTotals::getDay);
+            log.debug("Reconciled parcel stats in {} ms, {} keys corrected", (System.nanoTime() - started) / 1_000_000,
+                corrected);
+            if (corrected > 0) {
+                log.info("Corrected parcel stats of {} keys from the database", corrected);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Parcel stats reconciliation failed", e);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void apply(Amount amount, int sign) {
+        if (amount.clientId() != null) {
+            byClient.computeIfAbsent(amount.clientId(), id -> new Totals()).add(sign, amount);
+        }
+        if (amount.day() != null) {
+            byDay.computeIfAbsent(amount.day(), day -> new Totals()).add(sign, amount);
+        }
+    }
+
+    private static <K> Map<K, Long> updates(Map<K, Totals> counters) {
+        Map<K, Long> updates = new HashMap<>();
+        counters.forEach((key, totals) -> updates.put(key, totals.updates.sum()));
+        return updates;
+    }
+
+    // Keys missing from the query result are expected to be zero; keys created or changed since
+    // the update counts were taken are skipped.
+    private static <K> int correct(Map<K, Totals> counters, Map<K, Long> updatesBefore, Iterable<ParcelTotals> rows,
+            Function<ParcelTotals, K> key) {
+        Map<K, Snapshot> expected = new HashMap<>();
+        for (ParcelTotals row : rows) {
+            expected.put(key.apply(row), Totals.snapshot(row));
+        }
+        for (K k : counters.keySet()) {
+            expected.putIfAbsent(k, Snapshot.EMPTY);
+        }
+        int corrected = 0;
+        for (Map.Entry<K, Snapshot> entry : expected.entrySet()) {
+            Long before = updatesBefore.get(entry.getKey());
+            Totals totals = before != null ? counters.get(entry.getKey())
+                : counters.computeIfAbsent(entry.getKey(), k -> new Totals());
+            if (totals.updates.sum() != (before != null ? before : 0L)) {
+                continue;
+            }
+            Snapshot current = totals.snapshot();
+            if (!current.equals(entry.getValue())) {
+                totals.parcels.add(entry.getValue().parcels() - current.parcels());
+                totals.grams.add(entry.getValue().grams() - current.grams());
+                totals.grosze.add(entry.getValue().grosze() - current.grosze());
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    private static final class Totals {
+        private final LongAdder parcels = new LongAdder();
+        private final LongAdder grams = new LongAdder();
+        private final LongAdder grosze = new LongAdder();
+        // Incremental changes applied, so reconciliation can tell which keys moved meanwhile.
+        private final LongAdder updates = new LongAdder();
+
+        static Totals of(ParcelTotals row) {
+            Totals totals = new Totals();
+            Snapshot snapshot = snapshot(row);
+            totals.parcels.add(snapshot.parcels());
+            totals.grams.add(snapshot.grams());
+            totals.grosze.add(snapshot.grosze());
+            return totals;
+        }
+
+        static Snapshot snapshot(ParcelTotals row) {
+            return new Snapshot(row.getParcels(),
+                row.getGrams() != null ? row.getGrams() : 0L,
+                row.getGrosze() != null ? row.getGrosze() : 0L);
+        }
+
+        void add(int sign, Amount amount) {
+            updates.increment();
+            parcels.add(sign);
+            grams.add(sign * amount.grams());
+            grosze.add(sign * amount.grosze());
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(parcels.sum(), grams.sum(), grosze.sum());
+        }
+    }
+}
@@ -12,8 +12,6 @@ import pl.polsl.courier.management.system.entity.Car;
 public interface CarRepository extends CrudRepository<Car, Long> {
 	Optional<Car> findByRegistrationNumber(String registrationNumber);
 	boolean existsByRegistrationNumber(String registrationNumber);
-	List<Car> findByRoutesIsEmpty();
-    List<Car> findByRoutesIsNotEmpty();
     List<Car> findByBrand(String brand);
     List<Car> findByModel(String model);
     List<Car> findByCapacityBetween(Double minCapacity, Double maxCapacity);
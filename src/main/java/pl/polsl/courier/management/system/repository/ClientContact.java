@@ -0,0 +1,7 @@
+package pl.polsl.courier.management.system.repository;
+
+public interface ClientContact {
+    Long getId();
+    String getEmail();
+    String getPhoneNumber();
+}
@@ -3,7 +3,10 @@ package pl.polsl.courier.management.system.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import pl.polsl.courier.management.system.entity.Client;
@@ -19,4 +22,8 @@ public interface ClientRepository extends CrudRepository<Client, Long> {
     boolean existsByPhoneNumber(String phoneNumber);
     boolean existsByEmailAndIdNot(String email, Long id);
     boolean existsByPhoneNumberAndIdNot(String phoneNumber, Long id);
+
+    @Query("SELECT c.id AS id, c.email AS email, c.phoneNumber AS phoneNumber "
+        + "FROM Client c WHERE c.id > :afterId ORDER BY c.id")
+    List<ClientContact> findContactsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,11 +1,90 @@
 package pl.polsl.courier.management.system.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 import pl.polsl.courier.management.system.entity.Parcel;
+import pl.polsl.courier.management.system.entity.RoutePlan;
 
 @Repository
 public interface ParcelRepository extends CrudRepository<Parcel, Long> {
+    List<Parcel> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Parcel p ORDER BY p.id")
+    Stream<Parcel> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.routePlan.id AS routePlanId, p.id AS id FROM Parcel p "
+        + "WHERE p.routePlan IS NOT NULL ORDER BY p.routePlan.id, p.id")
+    Stream<RouteParcel> streamRouteParcels();
+
+    @Query("SELECT p.id FROM Parcel p WHERE p.routePlan.id = :routePlanId")
+    List<Long> findIdsByRoutePlanId(@Param("routePlanId") Long routePlanId);
+
+    @Query("SELECT p.id AS id, r.scheduleDate AS scheduleDate, c.id AS clientId, p.dispatchDate AS dispatchDate, "
+        + "CAST(p.weight * 1000 AS Long) AS grams, CAST(p.price * 100 AS Long) AS grosze "
+        + "FROM Parcel p LEFT JOIN p.routePlan r LEFT JOIN p.client c WHERE p.id = :id")
+    Optional<ParcelSnapshot> findSnapshotById(@Param("id") Long id);
+
+    @Query("SELECT p.id AS id, r.scheduleDate AS scheduleDate, c.id AS clientId, p.dispatchDate AS dispatchDate, "
+        + "CAST(p.weight * 1000 AS Long) AS grams, CAST(p.price * 100 AS Long) AS grosze "
+        + "FROM Parcel p JOIN p.routePlan r LEFT JOIN p.client c WHERE r.id = :routePlanId")
+    List<ParcelSnapshot> findSnapshotsByRoutePlanId(@Param("routePlanId") Long routePlanId);
+
+    // Sums in grams and grosze, as in RoutePlanRepository.streamDispatchRows.
+    @Query("SELECT p.client.id AS clientId, COUNT(p) AS parcels, "
+        + "SUM(CAST(p.weight * 1000 AS Long)) AS grams, SUM(CAST(p.price * 100 AS Long)) AS grosze "
+        + "FROM Parcel p WHERE p.client IS NOT NULL GROUP BY p.client.id")
+    List<ParcelTotals> sumByClient();
+
+    @Query("SELECT CAST(p.dispatchDate AS LocalDate) AS day, COUNT(p) AS parcels, "
+        + "SUM(CAST(p.weight * 1000 AS Long)) AS grams, SUM(CAST(p.price * 100 AS Long)) AS grosze "
+        + "FROM Parcel p WHERE p.dispatchDate IS NOT NULL GROUP BY CAST(p.dispatchDate AS LocalDate)")
+    List<ParcelTotals> sumByDay();
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Parcel p SET p.routePlan = null WHERE p.routePlan.id = :routePlanId AND p.id IN :ids")
+    int detachFromRoutePlan(@Param("routePlanId") Long routePlanId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS parcelId, r.id AS routePlanId, r.scheduleDate AS scheduleDate "
+        + "FROM Parcel p JOIN p.routePlan r WHERE p.id IN :ids AND r.id <> :routePlanId")
+    List<ParcelRoute> findOtherRoutes(@Param("ids") Collection<Long> ids, @Param("routePlanId") Long routePlanId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Parcel p SET p.routePlan = :routePlan WHERE p.id IN :ids")
+    int attachToRoutePlan(@Param("routePlan") RoutePlan routePlan, @Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Parcel p SET p.dispatchDate = :time WHERE p.id = :id "
+        + "AND (p.dispatchDate IS NULL OR p.dispatchDate <> :time)")
+    int recordDispatch(@Param("id") Long id, @Param("time") LocalDateTime time);
 
+    @Transactional
+    @Modifying
+    @Query("UPDATE Parcel p SET p.deliveryDate = :time WHERE p.id = :id "
+        + "AND (p.deliveryDate IS NULL OR p.deliveryDate <> :time)")
+    int recordDelivery(@Param("id") Long id, @Param("time") LocalDateTime time);
 }
@@ -0,0 +1,10 @@
+package pl.polsl.courier.management.system.repository;
+
+import java.time.LocalDate;
+
+/** A parcel's route plan and that route's schedule date. */
+public interface ParcelRoute {
+    Long getParcelId();
+    Long getRoutePlanId();
+    LocalDate getScheduleDate();
+}
@@ -0,0 +1,14 @@
+package pl.polsl.courier.management.system.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** What a change to a parcel has to undo: its route's date and its amounts in grams and grosze. */
+public interface ParcelSnapshot {
+    Long getId();
+    LocalDate getScheduleDate();
+    Long getClientId();
+    LocalDateTime getDispatchDate();
+    Long getGrams();
+    Long getGrosze();
+}
@@ -0,0 +1,11 @@
+package pl.polsl.courier.management.system.repository;
+
+import java.time.LocalDate;
+
+public interface ParcelTotals {
+    Long getClientId();
+    LocalDate getDay();
+    Long getParcels();
+    Long getGrams();
+    Long getGrosze();
+}
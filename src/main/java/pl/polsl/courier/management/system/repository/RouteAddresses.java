@@ -0,0 +1,7 @@
+package pl.polsl.courier.management.system.repository;
+
+public interface RouteAddresses {
+    Long getId();
+    String getStartLocation();
+    String getEndLocation();
+}
@@ -0,0 +1,9 @@
+package pl.polsl.courier.management.system.repository;
+
+import java.time.LocalDate;
+
+public interface RouteCarDay {
+    Long getId();
+    LocalDate getScheduleDate();
+    Long getCarId();
+}
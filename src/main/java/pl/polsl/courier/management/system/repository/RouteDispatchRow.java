@@ -0,0 +1,11 @@
+package pl.polsl.courier.management.system.repository;
+
+public interface RouteDispatchRow {
+    Long getRoutePlanId();
+    Long getCarId();
+    String getRegistrationNumber();
+    Double getCapacity();
+    Long getParcelId();
+    Long getGrams();
+    Long getGrosze();
+}
@@ -0,0 +1,11 @@
+package pl.polsl.courier.management.system.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface RouteLoad {
+    Long getId();
+    LocalDate getScheduleDate();
+    Integer getEstimatedTime();
+    BigDecimal getLoad();
+}
@@ -0,0 +1,6 @@
+package pl.polsl.courier.management.system.repository;
+
+public interface RouteParcel {
+    Long getRoutePlanId();
+    Long getId();
+}
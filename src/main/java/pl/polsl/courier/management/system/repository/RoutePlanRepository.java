@@ -1,24 +1,116 @@
 package pl.polsl.courier.management.system.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import pl.polsl.courier.management.system.entity.Car;
 import pl.polsl.courier.management.system.entity.RoutePlan;
 
 @Repository
 public interface RoutePlanRepository extends CrudRepository<RoutePlan, Long> {
+    @EntityGraph(attributePaths = "car")
     List<RoutePlan> findByScheduleDate(LocalDate scheduleDate);
-    List<RoutePlan> findByStartLocation(String address);
-    List<RoutePlan> findByEndLocation(String address);
-    List<RoutePlan> findByStartLocationContaining(String fragment);
-    List<RoutePlan> findByEndLocationContaining(String fragment);
-    List<RoutePlan> findByStops(String address);
-
-    @Query("SELECT r FROM RoutePlan r JOIN r.stops s WHERE s LIKE %:fragment%")
-    List<RoutePlan> findByStopsContaining(@Param("fragment") String fragment);
+
+    @EntityGraph(attributePaths = "car")
+    List<RoutePlan> findByStartAddressPostalCodeAndStartLocation(String postalCode, String address);
+
+    @EntityGraph(attributePaths = "car")
+    List<RoutePlan> findByEndAddressPostalCodeAndEndLocation(String postalCode, String address);
+
+    @EntityGraph(attributePaths = "car")
+    @Query("SELECT DISTINCT r FROM RoutePlan r JOIN r.stops s "
+        + "WHERE s.location.postalCode = :postalCode AND s.address = :address")
+    List<RoutePlan> findByStop(@Param("postalCode") String postalCode, @Param("address") String address);
+
+    @EntityGraph(attributePaths = "car")
+    List<RoutePlan> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Ids only: the collections' subselect fetch would repeat a paged query without its limit.
+    // LOCATE rather than LIKE, so '%' and '_' in a fragment match themselves.
+    @Query("SELECT r.id FROM RoutePlan r WHERE LOCATE(:fragment, r.startLocation) > 0 "
+        + "AND r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsByStartLocationContaining(@Param("fragment") String fragment, @Param("afterId") Long afterId,
+        Pageable pageable);
+
+    @Query("SELECT r.id FROM RoutePlan r WHERE LOCATE(:fragment, r.endLocation) > 0 "
+        + "AND r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsByEndLocationContaining(@Param("fragment") String fragment, @Param("afterId") Long afterId,
+        Pageable pageable);
+
+    @Query("SELECT DISTINCT r.id FROM RoutePlan r JOIN r.stops s "
+        + "WHERE LOCATE(:fragment, s.address) > 0 AND r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsByStopContaining(@Param("fragment") String fragment, @Param("afterId") Long afterId,
+        Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.startLocation AS startLocation, r.endLocation AS endLocation "
+        + "FROM RoutePlan r WHERE r.id > :afterId ORDER BY r.id")
+    List<RouteAddresses> findAddressesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT r.id AS routePlanId, s.address AS address FROM RoutePlan r JOIN r.stops s "
+        + "WHERE r.id BETWEEN :fromId AND :toId ORDER BY r.id, INDEX(s)")
+    List<StopAddress> findStopAddresses(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM RoutePlan r ORDER BY r.id")
+    Stream<RoutePlan> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.id AS routePlanId, s.address AS address FROM RoutePlan r JOIN r.stops s "
+        + "ORDER BY r.id, INDEX(s)")
+    Stream<StopAddress> streamStopAddresses();
+
+    @Query("SELECT r.id AS id, r.scheduleDate AS scheduleDate, r.car.id AS carId "
+        + "FROM RoutePlan r WHERE r.car IS NOT NULL")
+    List<RouteCarDay> findCarDays();
+
+    @Query("SELECT r.id AS id, r.scheduleDate AS scheduleDate, c.id AS carId "
+        + "FROM RoutePlan r LEFT JOIN r.car c WHERE r.id = :id")
+    Optional<RouteCarDay> findCarDayById(@Param("id") Long id);
+
+    // One row per parcel, and one with a null parcel for a route without any. Weight and price
+    // arrive as grams and grosze (see FixedPoint); with two decimals in both columns the products
+    // are whole, and no BigDecimal is built per row.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id AS routePlanId, c.id AS carId, c.registrationNumber AS registrationNumber, "
+        + "c.capacity AS capacity, p.id AS parcelId, "
+        + "CAST(p.weight * 1000 AS Long) AS grams, CAST(p.price * 100 AS Long) AS grosze "
+        + "FROM RoutePlan r LEFT JOIN r.car c LEFT JOIN r.parcel p "
+        + "WHERE r.scheduleDate = :date ORDER BY r.id")
+    Stream<RouteDispatchRow> streamDispatchRows(@Param("date") LocalDate date);
+
+    @Query("SELECT r.id AS id, r.scheduleDate AS scheduleDate, r.estimatedTime AS estimatedTime, "
+        + "SUM(p.weight) AS load FROM RoutePlan r LEFT JOIN r.parcel p "
+        + "WHERE r.scheduleDate BETWEEN :from AND :to "
+        + "GROUP BY r.id, r.scheduleDate, r.estimatedTime")
+    List<RouteLoad> findRouteLoads(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RoutePlan r SET r.car = :car WHERE r.id IN :ids")
+    int assignCar(@Param("car") Car car, @Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RoutePlan r SET r.car = NULL WHERE r.id IN :ids")
+    int clearCar(@Param("ids") Collection<Long> ids);
 }
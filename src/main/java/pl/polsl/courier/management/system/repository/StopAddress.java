@@ -0,0 +1,6 @@
+package pl.polsl.courier.management.system.repository;
+
+public interface StopAddress {
+    Long getRoutePlanId();
+    String getAddress();
+}
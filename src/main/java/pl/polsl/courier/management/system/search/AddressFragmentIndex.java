@@ -0,0 +1,481 @@
+package pl.polsl.courier.management.system.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.repository.RouteAddresses;
+import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+import pl.polsl.courier.management.system.repository.StopAddress;
+
+/**
+ * In-memory trigram index over route start, end and stop addresses, serving the fragment
+ * endpoints without LIKE '%...%' scans. Each route is a document with a dense int id and
+ * every trigram keeps a sorted int posting list per field. An update appends a new document
+ * and tombstones the old one; dead documents are dropped once they outnumber live ones.
+ * Matching is a case-sensitive substring test, like the SQL it replaces, and a fragment
+ * needs at least {@value #MIN_FRAGMENT} characters. Results come a page at a time, as the
+ * lowest route ids after a given one, so a fragment matching most routes stays cheap.
+ *
+ * <p>A rebuild reads the database without the lock, so searches go on meanwhile. Changes
+ * committed while it runs are applied to the current index and replayed on the new one
+ * before it is swapped in.
+ */
+@Component
+public class AddressFragmentIndex {
+
+    public enum Field { START, END, STOP }
+
+    public static final int MIN_FRAGMENT = 3;
+
+    private static final int GRAM = MIN_FRAGMENT;
+    private static final int LOAD_BATCH = 10_000;
+    private static final int VERIFY_BELOW = 64;
+
+    @Autowired
+    private RoutePlanRepository routePlanRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    private Segment segment = new Segment();
+    // Guarded by lock; changes to replay on the segment being rebuilt, or null.
+    private List<Consumer<Segment>> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Segment fresh = new Segment();
+            Long after = 0L;
+            List<RouteAddresses> batch;
+            do {
+                batch = routePlanRepo.findAddressesAfter(after, PageRequest.of(0, LOAD_BATCH));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Long first = batch.get(0).getId();
+                after = batch.get(batch.size() - 1).getId();
+                Map<Long, List<String>> stops = new HashMap<>();
+                for (StopAddress stop : routePlanRepo.findStopAddresses(first, after)) {
+                    stops.computeIfAbsent(stop.getRoutePlanId(), id -> new ArrayList<>()).add(stop.getAddress());
+                }
+                for (RouteAddresses route : batch) {
+                    fresh.add(route.getId(), document(route.getStartLocation(), route.getEndLocation(),
+                        stops.getOrDefault(route.getId(), List.of())));
+                }
+            } while (batch.size() == LOAD_BATCH);
+            swap(fresh);
+        } catch (RuntimeException e) {
+            swap(null);
+            throw e;
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    // Replaying is safe even for changes the load already saw: each one is remove-then-add.
+    private void swap(Segment fresh) {
+        lock.writeLock().lock();
+        try {
+            if (fresh != null) {
+                Segment replayed = fresh;
+                for (Consumer<Segment> change : pending) {
+                    replayed = apply(replayed, change);
+                }
+                segment = replayed;
+            }
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Indexes the route once the current transaction commits, replacing any older version. */
+    public void put(RoutePlan route) {
+        long id = route.getId();
+        List<String> stops = new ArrayList<>();
+        if (route.getStops() != null) {
+            route.getStops().forEach(stop -> stops.add(stop.getAddress()));
+        }
+        String[] doc = document(route.getStartLocation(), route.getEndLocation(), stops);
+        AfterCommit.run(() -> write(s -> {
+            s.remove(id);
+            s.add(id, doc);
+        }));
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(() -> write(s -> s.remove(id)));
+    }
+
+    /** Up to limit ids of routes after the given id whose field contains the fragment, ascending. */
+    public List<Long> find(Field field, String fragment, long after, int limit) {
+        if (fragment.length() < MIN_FRAGMENT) {
+            throw new IllegalArgumentException("Fragment must have at least " + MIN_FRAGMENT + " characters");
+        }
+        lock.readLock().lock();
+        try {
+            return segment.find(field, fragment, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            segment = apply(segment, change);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Segment apply(Segment target, Consumer<Segment> change) {
+        change.accept(target);
+        return target.needsCompaction() ? target.compact() : target;
+    }
+
+    private static String[] document(String start, String end, List<String> stops) {
+        String[] doc = new String[2 + stops.size()];
+        doc[0] = start;
+        doc[1] = end;
+        for (int k = 0; k < stops.size(); k++) {
+            doc[2 + k] = stops.get(k);
+        }
+        return doc;
+    }
+
+    private static long gram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static final class Segment {
+        private long[] routeIds = new long[1024];
+        private String[][] docs = new String[1024][];
+        private int size;
+        private int dead;
+        private final BitSet live = new BitSet();
+        private final DocTable docOf = new DocTable();
+        private final Map<Field, GramTable> postings = new EnumMap<>(Field.class);
+
+        Segment() {
+            for (Field field : Field.values()) {
+                postings.put(field, new GramTable());
+            }
+        }
+
+        void add(long routeId, String[] doc) {
+            if (size == routeIds.length) {
+                routeIds = Arrays.copyOf(routeIds, size * 2);
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            int d = size++;
+            routeIds[d] = routeId;
+            docs[d] = doc;
+            live.set(d);
+            docOf.put(routeId, d);
+            index(Field.START, d, doc[0]);
+            index(Field.END, d, doc[1]);
+            for (int k = 2; k < doc.length; k++) {
+                index(Field.STOP, d, doc[k]);
+            }
+        }
+
+        void remove(long routeId) {
+            int d = docOf.remove(routeId);
+            if (d >= 0) {
+                live.clear(d);
+                docs[d] = null;
+                dead++;
+            }
+        }
+
+        boolean needsCompaction() {
+            return dead > 1024 && dead > size - dead;
+        }
+
+        Segment compact() {
+            Segment fresh = new Segment();
+            for (int d = live.nextSetBit(0); d >= 0; d = live.nextSetBit(d + 1)) {
+                fresh.add(routeIds[d], docs[d]);
+            }
+            return fresh;
+        }
+
+        // Keeps the lowest matching route ids in a sorted array. Once it is full, candidates
+        // above its last id are skipped before the text is checked, and documents are mostly
+        // in route id order, so few of them get that far.
+        List<Long> find(Field field, String fragment, long after, int limit) {
+            int[] candidates = candidates(postings.get(field), fragment);
+            int capacity = Math.min(limit, candidates.length);
+            long[] lowest = new long[capacity];
+            int count = 0;
+            for (int d : candidates) {
+                long routeId = routeIds[d];
+                if (routeId <= after || (count == capacity && routeId >= lowest[capacity - 1])
+                        || !live.get(d) || !matches(field, docs[d], fragment)) {
+                    continue;
+                }
+                int at = -Arrays.binarySearch(lowest, 0, count, routeId) - 1;
+                System.arraycopy(lowest, at, lowest, at + 1, Math.min(count, capacity - 1) - at);
+                lowest[at] = routeId;
+                if (count < capacity) {
+                    count++;
+                }
+            }
+            List<Long> result = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                result.add(lowest[k]);
+            }
+            return result;
+        }
+
+        private void index(Field field, int d, String text) {
+            if (text == null) {
+                return;
+            }
+            GramTable grams = postings.get(field);
+            for (int at = 0; at + GRAM <= text.length(); at++) {
+                grams.getOrCreate(gram(text, at)).add(d);
+            }
+        }
+
+        // Intersects posting lists from the shortest up and stops once few candidates are
+        // left; those are cheaper to check against the text than the remaining lists.
+        // Trigrams of one word tend to share the very same list, so a list as long as the
+        // previous one is skipped; every candidate is verified anyway.
+        private static int[] candidates(GramTable grams, String fragment) {
+            int n = fragment.length() - GRAM + 1;
+            Postings[] lists = new Postings[n];
+            for (int at = 0; at < n; at++) {
+                lists[at] = grams.get(gram(fragment, at));
+                if (lists[at] == null) {
+                    return new int[0];
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            int[] result = Arrays.copyOf(lists[0].docs, lists[0].size);
+            int count = result.length;
+            for (int k = 1; k < n && count > VERIFY_BELOW; k++) {
+                if (lists[k].size != lists[k - 1].size) {
+                    count = lists[k].retain(result, count);
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private static boolean matches(Field field, String[] doc, String fragment) {
+            switch (field) {
+                case START:
+                    return doc[0] != null && doc[0].contains(fragment);
+                case END:
+                    return doc[1] != null && doc[1].contains(fragment);
+                default:
+                    for (int k = 2; k < doc.length; k++) {
+                        if (doc[k] != null && doc[k].contains(fragment)) {
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+        }
+    }
+
+    /** Open-addressing map from a packed trigram to its posting list, without boxing keys. */
+    private static final class GramTable {
+        private long[] keys = new long[1024];
+        private Postings[] values = new Postings[1024];
+        private int size;
+
+        Postings get(long gram) {
+            int mask = keys.length - 1;
+            for (int slot = hash(gram) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == gram) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        Postings getOrCreate(long gram) {
+            int mask = keys.length - 1;
+            int slot = hash(gram) & mask;
+            for (; values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == gram) {
+                    return values[slot];
+                }
+            }
+            Postings created = new Postings();
+            keys[slot] = gram;
+            values[slot] = created;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return created;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Postings[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int k = 0; k < oldKeys.length; k++) {
+                if (oldValues[k] != null) {
+                    int slot = hash(oldKeys[k]) & mask;
+                    while (values[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[k];
+                    values[slot] = oldValues[k];
+                }
+            }
+        }
+
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** Open-addressing map from a route id to its live document, without boxing. */
+    static final class DocTable {
+        private static final int EMPTY = -1;
+
+        private long[] keys = new long[1024];
+        private int[] docs = filled(1024);
+        private int size;
+
+        void put(long routeId, int doc) {
+            int mask = keys.length - 1;
+            int slot = hash(routeId) & mask;
+            for (; docs[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == routeId) {
+                    docs[slot] = doc;
+                    return;
+                }
+            }
+            keys[slot] = routeId;
+            docs[slot] = doc;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        /** Removes the route and returns its document, or -1 when absent. */
+        int remove(long routeId) {
+            int mask = keys.length - 1;
+            int slot = hash(routeId) & mask;
+            while (docs[slot] != EMPTY && keys[slot] != routeId) {
+                slot = (slot + 1) & mask;
+            }
+            int doc = docs[slot];
+            if (doc == EMPTY) {
+                return EMPTY;
+            }
+            // Backward-shift deletion: pull later entries of the probe run into the hole
+            // unless that would move them before their home slot.
+            int hole = slot;
+            for (int next = (hole + 1) & mask; docs[next] != EMPTY; next = (next + 1) & mask) {
+                int home = hash(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    docs[hole] = docs[next];
+                    hole = next;
+                }
+            }
+            docs[hole] = EMPTY;
+            size--;
+            return doc;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldDocs = docs;
+            keys = new long[oldKeys.length * 2];
+            docs = filled(oldDocs.length * 2);
+            int mask = keys.length - 1;
+            for (int k = 0; k < oldKeys.length; k++) {
+                if (oldDocs[k] != EMPTY) {
+                    int slot = hash(oldKeys[k]) & mask;
+                    while (docs[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[k];
+                    docs[slot] = oldDocs[k];
+                }
+            }
+        }
+
+        private static int[] filled(int length) {
+            int[] values = new int[length];
+            Arrays.fill(values, EMPTY);
+            return values;
+        }
+    }
+
+    /** Ascending, duplicate-free list of document ids. */
+    static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        // Keeps in values[0..count) only documents present in this list; both are ascending,
+        // so each lookup gallops forward from the previous position.
+        int retain(int[] values, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int target = values[i];
+                int step = 1;
+                int hi = from;
+                while (hi < size && docs[hi] < target) {
+                    from = hi + 1;
+                    hi += step;
+                    step <<= 1;
+                }
+                int pos = Arrays.binarySearch(docs, from, Math.min(hi + 1, size), target);
+                if (pos >= 0) {
+                    values[kept++] = target;
+                    from = pos + 1;
+                } else {
+                    from = -pos - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
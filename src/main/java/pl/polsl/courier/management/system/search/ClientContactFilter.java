@@ -0,0 +1,102 @@
+package pl.polsl.courier.management.system.search;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import pl.polsl.courier.management.system.repository.ClientContact;
+import pl.polsl.courier.management.system.repository.ClientRepository;
+
+/**
+ * Bloom filters over client emails and phone numbers used before the uniqueness queries:
+ * "absent" is definite and skips the query, "maybe present" falls through to the database.
+ * Values are added before a client is saved and never removed, so the filters only err
+ * towards asking the database. Until the first build every value is "maybe present". The
+ * unique constraints on client stay the final authority.
+ */
+@Component
+public class ClientContactFilter {
+
+    private static final int LOAD_BATCH = 10_000;
+
+    @Autowired
+    private ClientRepository clientRepo;
+
+    @Value("${courier.client.filter.expected-clients:1000000}")
+    private long expectedClients;
+
+    @Value("${courier.client.filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Filters current;
+    private volatile Filters building;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Filters fresh = new Filters(Math.max(expectedClients, 2 * clientRepo.count()), falsePositiveRate);
+            building = fresh;
+            Long after = 0L;
+            List<ClientContact> batch;
+            do {
+                batch = clientRepo.findContactsAfter(after, PageRequest.of(0, LOAD_BATCH));
+                for (ClientContact contact : batch) {
+                    fresh.put(contact.getEmail(), contact.getPhoneNumber());
+                    after = contact.getId();
+                }
+            } while (batch.size() == LOAD_BATCH);
+            current = fresh;
+            building = null;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || email == null || filters.emails.mightContain(email);
+    }
+
+    public boolean mightContainPhoneNumber(String phoneNumber) {
+        Filters filters = current;
+        return filters == null || phoneNumber == null || filters.phoneNumbers.mightContain(phoneNumber);
+    }
+
+    public void put(String email, String phoneNumber) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.put(email, phoneNumber);
+        }
+        Filters pending = building;
+        if (pending != null) {
+            pending.put(email, phoneNumber);
+        }
+    }
+
+    private static final class Filters {
+        private final BloomFilter emails;
+        private final BloomFilter phoneNumbers;
+
+        Filters(long expected, double falsePositiveRate) {
+            emails = new BloomFilter(expected, falsePositiveRate);
+            phoneNumbers = new BloomFilter(expected, falsePositiveRate);
+        }
+
+        void put(String email, String phoneNumber) {
+            if (email != null) {
+                emails.put(email);
+            }
+            if (phoneNumber != null) {
+                phoneNumbers.put(phoneNumber);
+            }
+        }
+    }
+}
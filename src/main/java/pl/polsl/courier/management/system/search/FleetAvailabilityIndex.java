@@ -0,0 +1,222 @@
+package pl.polsl.courier.management.system.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import pl.polsl.courier.management.system.dto.CarDTO;
+import pl.polsl.courier.management.system.entity.Car;
+import pl.polsl.courier.management.system.repository.CarRepository;
+import pl.polsl.courier.management.system.repository.RouteCarDay;
+import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+
+/**
+ * Which cars have routes on which day, kept in memory. Every car gets a bit in order of
+ * registration, and every schedule date a bitset of cars with at least one route that day,
+ * so availability is the fleet bitset minus the day's bitset. Routes without a date count
+ * only towards the all-time view used when no date is given.
+ */
+@Component
+public class FleetAvailabilityIndex {
+
+    @Autowired
+    private RoutePlanRepository routePlanRepo;
+    @Autowired
+    private CarRepository carRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> bitOf = new HashMap<>();
+    private final BitSet fleet = new BitSet();
+    private CarDTO[] cars = new CarDTO[64];
+    private int bits;
+    private final Map<LocalDate, Day> days = new HashMap<>();
+    private final Day allTime = new Day();
+    private final Map<Long, Assignment> routes = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            bitOf.clear();
+            fleet.clear();
+            cars = new CarDTO[64];
+            bits = 0;
+            days.clear();
+            allTime.clear();
+            routes.clear();
+            for (Car car : carRepo.findAll()) {
+                addCar(new CarDTO(car));
+            }
+            for (RouteCarDay route : routePlanRepo.findCarDays()) {
+                addRoute(route.getId(), route.getScheduleDate(), route.getCarId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putCar(Car car) {
+        CarDTO dto = new CarDTO(car);
+        AfterCommit.run(() -> write(() -> addCar(dto)));
+    }
+
+    public void removeCar(Long carId) {
+        AfterCommit.run(() -> write(() -> {
+            Integer bit = bitOf.get(carId);
+            if (bit != null) {
+                fleet.clear(bit);
+                cars[bit] = null;
+            }
+        }));
+    }
+
+    /** Records the route's date and car once the current transaction commits. */
+    public void putRoute(Long routeId, LocalDate date, Long carId) {
+        AfterCommit.run(() -> write(() -> {
+            removeRoute0(routeId);
+            if (carId != null) {
+                addRoute(routeId, date, carId);
+            }
+        }));
+    }
+
+    public void removeRoute(Long routeId) {
+        AfterCommit.run(() -> write(() -> removeRoute0(routeId)));
+    }
+
+    /** Cars with no route on the date, or with no route at all when date is null. */
+    public List<CarDTO> available(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            BitSet free = (BitSet) fleet.clone();
+            free.andNot(day(date).occupied);
+            return collect(free);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Cars with a route on the date, or with any route when date is null. */
+    public List<CarDTO> occupied(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            BitSet busy = (BitSet) day(date).occupied.clone();
+            busy.and(fleet);
+            return collect(busy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Day day(LocalDate date) {
+        if (date == null) {
+            return allTime;
+        }
+        return days.getOrDefault(date, Day.EMPTY);
+    }
+
+    private List<CarDTO> collect(BitSet set) {
+        List<CarDTO> result = new ArrayList<>(set.cardinality());
+        for (int bit = set.nextSetBit(0); bit >= 0; bit = set.nextSetBit(bit + 1)) {
+            result.add(cars[bit]);
+        }
+        return result;
+    }
+
+    private void addCar(CarDTO car) {
+        Integer bit = bitOf.get(car.getId());
+        if (bit == null) {
+            bit = bits++;
+            bitOf.put(car.getId(), bit);
+            if (bit == cars.length) {
+                cars = Arrays.copyOf(cars, bit * 2);
+            }
+        }
+        cars[bit] = car;
+        fleet.set(bit);
+    }
+
+    private void addRoute(Long routeId, LocalDate date, Long carId) {
+        Integer bit = bitOf.get(carId);
+        if (bit == null) {
+            return;
+        }
+        routes.put(routeId, new Assignment(date, bit));
+        allTime.add(bit);
+        if (date != null) {
+            days.computeIfAbsent(date, d -> new Day()).add(bit);
+        }
+    }
+
+    private void removeRoute0(Long routeId) {
+        Assignment old = routes.remove(routeId);
+        if (old == null) {
+            return;
+        }
+        allTime.remove(old.bit);
+        if (old.date != null) {
+            Day day = days.get(old.date);
+            day.remove(old.bit);
+            if (day.occupied.isEmpty()) {
+                days.remove(old.date);
+            }
+        }
+    }
+
+    private static final class Assignment {
+        private final LocalDate date;
+        private final int bit;
+
+        Assignment(LocalDate date, int bit) {
+            this.date = date;
+            this.bit = bit;
+        }
+    }
+
+    /** Routes per car on one day; a car's bit is set while its count is positive. */
+    private static final class Day {
+        static final Day EMPTY = new Day();
+
+        private final BitSet occupied = new BitSet();
+        private int[] routes = new int[64];
+
+        void add(int bit) {
+            if (bit >= routes.length) {
+                routes = Arrays.copyOf(routes, Math.max(bit + 1, routes.length * 2));
+            }
+            if (routes[bit]++ == 0) {
+                occupied.set(bit);
+            }
+        }
+
+        void remove(int bit) {
+            if (--routes[bit] == 0) {
+                occupied.clear(bit);
+            }
+        }
+
+        void clear() {
+            occupied.clear();
+            Arrays.fill(routes, 0);
+        }
+    }
+}
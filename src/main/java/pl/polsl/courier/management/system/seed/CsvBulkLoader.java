@@ -0,0 +1,245 @@
+package pl.polsl.courier.management.system.seed;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+import pl.polsl.courier.management.system.cache.CarCache;
+import pl.polsl.courier.management.system.cache.DispatchSummaryCache;
+import pl.polsl.courier.management.system.entity.Address;
+import pl.polsl.courier.management.system.search.AddressFragmentIndex;
+import pl.polsl.courier.management.system.search.ClientContactFilter;
+import pl.polsl.courier.management.system.search.FleetAvailabilityIndex;
+
+/**
+ * Imports clients, cars, route plans, stops and parcels from CSV files with one
+ * {@code INSERT ... SELECT ... FROM CSVREAD(...)} per file, run and committed inside H2, instead of
+ * going through JPA or JDBC.
+ * Files are read from {@code courier.bulk-load.dir} at startup (or any directory passed to {@link
+ * #load}); each one is optional, UTF-8, with a header row naming the columns:
+ * <ul>
+ *   <li>{@code clients.csv}: id, first_name, last_name, email, phone_number, address</li>
+ *   <li>{@code cars.csv}: id, brand, model, registration_number, mileage, capacity</li>
+ *   <li>{@code routes.csv}: id, start_location, end_location, distance, estimated_time, scheduled_date, car_id</li>
+ *   <li>{@code stops.csv}: route_plan_id, stop_order, stop_address</li>
+ *   <li>{@code parcels.csv}: id, content_description, sender_address, recipient_address, dispatch_date,
+ *       delivery_date, weight, price, client_id, route_plan_id</li>
+ * </ul>
+ * Addresses are split into street, postal code and city by {@code REGEXP_SUBSTR} with the groups of
+ * {@link Address#FORMAT}, so they come out as {@link Address#parse} gives them; empty fields are
+ * NULL. Secondary indexes of the tables are dropped for the load and built again once the rows are
+ * in, and foreign keys are checked once per table at the end rather than for every row. Afterwards
+ * every ID sequence is moved past the loaded IDs and the in-memory indexes are rebuilt.
+ */
+@Slf4j
+@Component
+public class CsvBulkLoader implements SmartInitializingSingleton {
+
+    private static final List<CsvTable> TABLES = List.of(
+        new CsvTable("clients.csv", "client", "id, first_name, last_name, email, phone_number, address",
+            new AddressColumn("address", "")),
+        new CsvTable("cars.csv", "car", "id, brand, model, registration_number, mileage, capacity"),
+        new CsvTable("routes.csv", "route_plan",
+            "id, start_location, end_location, distance, estimated_time, scheduled_date, car_id",
+            new AddressColumn("start_location", "start_"), new AddressColumn("end_location", "end_")),
+        new CsvTable("stops.csv", "route_stops", "route_plan_id, stop_order, stop_address",
+            new AddressColumn("stop_address", "")),
+        new CsvTable("parcels.csv", "parcel", "id, content_description, sender_address, recipient_address, "
+            + "dispatch_date, delivery_date, weight, price, client_id, route_plan_id",
+            new AddressColumn("sender_address", "sender_"), new AddressColumn("recipient_address", "recipient_")));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AddressFragmentIndex addressIndex;
+
+    @Autowired
+    private FleetAvailabilityIndex fleetIndex;
+
+    @Autowired
+    private ClientContactFilter clientFilter;
+
+    @Autowired
+    private CarCache carCache;
+
+    @Autowired
+    private DispatchSummaryCache dispatchSummaries;
+
+    @Value("${courier.bulk-load.dir:}")
+    private String dir;
+
+    // Runs before the web server starts, so no request sees a half-loaded database.
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!dir.isBlank()) {
+            load(Path.of(dir));
+        }
+    }
+
+    /** Loads every CSV file present in the directory and returns the rows inserted per file. */
+    public Map<String, Integer> load(Path directory) {
+        requireH2();
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Not a directory: " + directory.toAbsolutePath());
+        }
+        Map<String, Integer> rows = new LinkedHashMap<>();
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            List<String> indexes = dropIndexes(statement);
+            boolean checked = false;
+            try {
+                setReferentialIntegrity(statement, "FALSE");
+                for (CsvTable table : TABLES) {
+                    importFile(statement, directory, table, rows);
+                }
+                setReferentialIntegrity(statement, "TRUE CHECK");
+                checked = true;
+            } finally {
+                if (!checked) {
+                    setReferentialIntegrity(statement, "TRUE NOCHECK");
+                }
+                for (String index : indexes) {
+                    statement.execute(index);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Bulk load from " + directory.toAbsolutePath() + " failed after "
+                + rows + " (each file is committed on its own)", e);
+        }
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        restartSequence(jdbc, "CLIENT_SEQ", "client");
+        restartSequence(jdbc, "CAR_SEQ", "car");
+        restartSequence(jdbc, "ROUTE_PLAN_SEQ", "route_plan");
+        restartSequence(jdbc, "PARCEL_SEQ", "parcel");
+
+        addressIndex.rebuild();
+        fleetIndex.rebuild();
+        clientFilter.rebuild();
+        carCache.clear();
+        dispatchSummaries.clear();
+        log.info("Bulk loaded {} from {} in {} ms", rows, directory.toAbsolutePath(),
+            (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    // H2 reads the CSV and inserts every row in one statement; nothing passes through JDBC.
+    private static void importFile(Statement statement, Path directory, CsvTable table, Map<String, Integer> rows)
+            throws SQLException {
+        Path csv = directory.resolve(table.file());
+        if (!Files.isRegularFile(csv)) {
+            return;
+        }
+        // CSVREAD is resolved when the statement is prepared, so the file name cannot be a parameter.
+        String fileName = literal(csv.toAbsolutePath().toString());
+        int count = statement.executeUpdate("INSERT INTO " + table.table() + " (" + table.insertColumns() + ") "
+            + "SELECT " + table.selectColumns() + " FROM CSVREAD(" + fileName + ", NULL, 'charset=UTF-8')");
+        rows.put(table.file(), count);
+    }
+
+    // Drops the plain indexes of the loaded tables and returns the statements that create them again.
+    // Indexes behind a primary key, unique or foreign key constraint stay.
+    private static List<String> dropIndexes(Statement statement) throws SQLException {
+        List<String> names = TABLES.stream().map(table -> literal(table.table().toUpperCase())).toList();
+        List<String> creates = new ArrayList<>();
+        List<String> drops = new ArrayList<>();
+        try (ResultSet index = statement.executeQuery("SELECT i.index_name, i.table_name, "
+                + "LISTAGG('\"' || c.column_name || '\" ' || c.ordering_specification || ' NULLS ' || c.null_ordering, "
+                + "', ') WITHIN GROUP (ORDER BY c.ordinal_position) "
+                + "FROM information_schema.indexes i JOIN information_schema.index_columns c "
+                + "ON c.index_schema = i.index_schema AND c.index_name = i.index_name "
+                + "WHERE i.table_schema = SCHEMA() AND i.index_type_name = 'INDEX' "
+                + "AND i.table_name IN (" + String.join(", ", names) + ") "
+                + "AND NOT EXISTS (SELECT 1 FROM information_schema.table_constraints t "
+                + "WHERE t.index_schema = i.index_schema AND t.index_name = i.index_name) "
+                + "GROUP BY i.index_name, i.table_name")) {
+            while (index.next()) {
+                creates.add("CREATE INDEX \"" + index.getString(1) + "\" ON \"" + index.getString(2) + "\" ("
+                    + index.getString(3) + ")");
+                drops.add("DROP INDEX \"" + index.getString(1) + "\"");
+            }
+        }
+        for (String drop : drops) {
+            statement.execute(drop);
+        }
+        return creates;
+    }
+
+    private static void setReferentialIntegrity(Statement statement, String mode) throws SQLException {
+        for (CsvTable table : TABLES) {
+            statement.execute("ALTER TABLE " + table.table() + " SET REFERENTIAL_INTEGRITY " + mode);
+        }
+    }
+
+    // Hibernate's pooled optimizer hands out the increment-sized block ending at the value it reads,
+    // so the sequence has to restart one increment past the highest ID.
+    private static void restartSequence(JdbcTemplate jdbc, String sequence, String table) {
+        Long increment = jdbc.queryForObject(
+            "SELECT increment FROM information_schema.sequences WHERE sequence_name = ?", Long.class, sequence);
+        Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (max + increment));
+    }
+
+    private void requireH2() {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (!"H2".equals(product)) {
+                throw new IllegalStateException("CSV bulk load uses H2's CSVREAD, not available on " + product);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot check the database for a bulk load", e);
+        }
+    }
+
+    private static String literal(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private record AddressColumn(String name, String prefix) {
+    }
+
+    private record CsvTable(String file, String table, String columns, AddressColumn... addresses) {
+
+        // CSV columns first, then street, postal code and city for every address column.
+        String insertColumns() {
+            StringBuilder sql = new StringBuilder(columns);
+            for (AddressColumn address : addresses) {
+                sql.append(", ").append(address.prefix()).append("street, ")
+                    .append(address.prefix()).append("postal_code, ")
+                    .append(address.prefix()).append("city");
+            }
+            return sql.toString();
+        }
+
+        // The same, read from the CSV: an address that does not match the format gives NULLs.
+        String selectColumns() {
+            StringBuilder sql = new StringBuilder(columns);
+            String format = literal(Address.FORMAT.pattern());
+            for (AddressColumn address : addresses) {
+                for (int group = 1; group <= 3; group++) {
+                    sql.append(", REGEXP_SUBSTR(").append(address.name()).append(", ").append(format)
+                        .append(", 1, 1, NULL, ").append(group).append(')');
+                }
+            }
+            return sql.toString();
+        }
+    }
+}
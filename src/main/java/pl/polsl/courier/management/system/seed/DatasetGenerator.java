@@ -0,0 +1,354 @@
+package pl.polsl.courier.management.system.seed;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic synthetic dataset: {@code clients} clients, {@code cars} cars, {@code routes}
+ * route plans scheduled over {@code days} days from {@code firstDay}, and {@code parcels}
+ * parcels, with IDs from 1. Every row is derived from the seed, its table and its ID alone,
+ * so {@link #client}, {@link #route} etc. return the same row in any order and a larger
+ * dataset extends a smaller one with the same seed.
+ *
+ * <p>Addresses use real city postal-code ranges in the 'ul. Przykładowa 10, 00-950 Warszawa'
+ * format the DTO validators accept; cities are weighted by size. Parcel weights are
+ * log-normal around 1.8 kg (up to 31.5 kg), prices follow weight tiers with occasional
+ * insurance and cash-on-delivery fees, a few clients send most parcels, and most parcels
+ * ride a route and are dispatched on its date.
+ *
+ * <p>{@link #writeCsv} produces the files {@link CsvBulkLoader} imports; {@link #load} goes
+ * through it into an empty database.
+ */
+public final class DatasetGenerator {
+
+    private static final String[] CITIES = {
+        "Warszawa", "Kraków", "Łódź", "Wrocław", "Poznań", "Gdańsk",
+        "Szczecin", "Bydgoszcz", "Lublin", "Białystok", "Katowice", "Gliwice"
+    };
+    // First two postal-code digits per city, and relative weights roughly following population.
+    private static final int[][] POSTAL_PREFIXES = {
+        { 0, 4 }, { 30, 31 }, { 90, 94 }, { 50, 54 }, { 60, 61 }, { 80, 80 },
+        { 70, 71 }, { 85, 85 }, { 20, 20 }, { 15, 15 }, { 40, 40 }, { 44, 44 }
+    };
+    private static final int[] CITY_WEIGHTS = { 18, 8, 7, 6, 5, 5, 4, 3, 3, 3, 3, 2 };
+    private static final String[] REGISTRATION_PREFIXES = {
+        "WX", "KR", "EL", "DW", "PO", "GD", "ZS", "CB", "LU", "BI", "SK", "SG"
+    };
+    private static final String[] STREETS = {
+        "ul. Lipowa", "ul. Polna", "ul. Leśna", "ul. Słoneczna", "ul. Krótka", "ul. Szkolna",
+        "ul. Ogrodowa", "ul. Łąkowa", "ul. Brzozowa", "ul. Kwiatowa", "ul. Kościelna", "ul. Sosnowa",
+        "ul. Zielona", "ul. Parkowa", "ul. Kolejowa", "ul. Adama Mickiewicza", "ul. Długa",
+        "ul. Jana Pawła II", "al. Niepodległości", "pl. Wolności"
+    };
+    private static final String[] MALE_NAMES = { "Jan", "Piotr", "Tomasz", "Paweł", "Michał", "Krzysztof", "Łukasz" };
+    private static final String[] FEMALE_NAMES = { "Anna", "Maria", "Katarzyna", "Małgorzata", "Agnieszka", "Ewa", "Zofia" };
+    private static final String[] SURNAMES = {
+        "Nowak", "Kowalski", "Wiśniewski", "Wójcik", "Kowalczyk", "Kamiński", "Lewandowski",
+        "Zieliński", "Szymański", "Woźniak", "Dąbrowski", "Kozłowski", "Mazur", "Krawczyk"
+    };
+    private static final String[][] VANS = {
+        { "Ford", "Transit", "12.4" }, { "Renault", "Master", "13.0" }, { "Mercedes", "Sprinter", "14.0" },
+        { "Iveco", "Daily", "16.0" }, { "Volkswagen", "Crafter", "11.3" }, { "Fiat", "Ducato", "13.0" }
+    };
+    private static final String[] CONTENTS = {
+        "Dokumenty", "Książki", "Odzież", "Elektronika", "Kosmetyki", "Części samochodowe",
+        "Zabawki", "Artykuły spożywcze", "Sprzęt AGD", "Leki"
+    };
+    // Upper weight bound in kg and base price in PLN of each tier.
+    private static final double[] WEIGHT_TIERS = { 1, 5, 10, 20, 31.5 };
+    private static final String[] TIER_PRICES = { "12.99", "16.99", "21.99", "29.99", "39.99" };
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final long CLIENT = 1, CAR = 2, ROUTE = 3, PARCEL = 4;
+
+    private final long seed;
+    private final int clients;
+    private final int cars;
+    private final int routes;
+    private final int parcels;
+    private final LocalDate firstDay;
+    private final int days;
+
+    public DatasetGenerator(long seed, int clients, int cars, int routes, int parcels, LocalDate firstDay, int days) {
+        if (clients < 0 || cars < 0 || routes < 0 || parcels < 0 || days < 1) {
+            throw new IllegalArgumentException("Dataset sizes must not be negative and days must be positive");
+        }
+        if (parcels > 0 && clients == 0) {
+            throw new IllegalArgumentException("Parcels need at least one client");
+        }
+        this.seed = seed;
+        this.clients = clients;
+        this.cars = cars;
+        this.routes = routes;
+        this.parcels = parcels;
+        this.firstDay = firstDay;
+        this.days = days;
+    }
+
+    public record ClientRow(long id, String firstName, String lastName, String email, String phoneNumber,
+            String address) {
+    }
+
+    public record CarRow(long id, String brand, String model, String registrationNumber, int mileage,
+            double capacity) {
+    }
+
+    public record RouteRow(long id, String startLocation, String endLocation, double distance, int estimatedTime,
+            LocalDate scheduledDate, Long carId, List<String> stops) {
+    }
+
+    public record ParcelRow(long id, String contentDescription, String senderAddress, String recipientAddress,
+            LocalDateTime dispatchDate, LocalDateTime deliveryDate, BigDecimal weight, BigDecimal price,
+            long clientId, Long routePlanId) {
+    }
+
+    public ClientRow client(long id) {
+        SplittableRandom random = random(CLIENT, id);
+        boolean female = random.nextBoolean();
+        String firstName = pick(female ? FEMALE_NAMES : MALE_NAMES, random);
+        String lastName = pick(SURNAMES, random);
+        if (female) {
+            lastName = lastName.replaceAll("ki$", "ka");
+        }
+        return new ClientRow(id, firstName, lastName,
+            ascii(firstName + "." + lastName) + "." + id + "@example.com",
+            "+48" + (500_000_000L + id), address(random));
+    }
+
+    public CarRow car(long id) {
+        SplittableRandom random = random(CAR, id);
+        String[] van = pick(VANS, random);
+        return new CarRow(id, van[0], van[1], pick(REGISTRATION_PREFIXES, random) + String.format("%05d", id),
+            5_000 + random.nextInt(350_000), Double.parseDouble(van[2]));
+    }
+
+    public RouteRow route(long id) {
+        SplittableRandom random = random(ROUTE, id);
+        // First draw, so routeDate can repeat it without generating the whole route.
+        LocalDate date = firstDay.plusDays(random.nextInt(days));
+        Long carId = cars > 0 && random.nextInt(10) != 0 ? 1L + random.nextInt(cars) : null;
+        String start = address(random);
+        String end = address(random);
+        List<String> stops = new ArrayList<>();
+        for (int k = 1 + random.nextInt(5); k > 0; k--) {
+            stops.add(address(random));
+        }
+        double distance = Math.min(800, Math.max(3, Math.exp(Math.log(60) + 0.8 * random.nextGaussian())));
+        distance = Math.round(distance * 10) / 10.0;
+        int minutes = (int) Math.round(distance / 55 * 60) + 8 * stops.size();
+        return new RouteRow(id, start, end, distance, minutes, date, carId, Collections.unmodifiableList(stops));
+    }
+
+    public ParcelRow parcel(long id) {
+        SplittableRandom random = random(PARCEL, id);
+        // Squaring a uniform draw makes low client IDs the frequent senders.
+        double u = random.nextDouble();
+        long clientId = 1 + (long) (clients * u * u);
+        Long routeId = routes > 0 && random.nextInt(100) < 85 ? 1L + random.nextInt(routes) : null;
+        LocalDate day = routeId != null ? routeDate(routeId) : firstDay.plusDays(random.nextInt(days));
+        LocalDateTime dispatch = day.atTime(7 + random.nextInt(11), random.nextInt(60));
+        LocalDateTime delivery = dispatch.plusHours(6 + random.nextInt(90));
+        String sender = random.nextInt(10) < 7 ? client(clientId).address() : address(random);
+
+        double kg = Math.min(31.5, Math.max(0.05, Math.exp(Math.log(1.8) + 0.9 * random.nextGaussian())));
+        BigDecimal weight = BigDecimal.valueOf(kg).setScale(2, RoundingMode.HALF_UP);
+        int tier = 0;
+        while (kg > WEIGHT_TIERS[tier]) {
+            tier++;
+        }
+        BigDecimal price = new BigDecimal(TIER_PRICES[tier]);
+        if (random.nextInt(100) < 12) {
+            price = price.add(BigDecimal.valueOf(500 + random.nextInt(4_501), 2));
+        }
+        if (random.nextInt(100) < 15) {
+            price = price.add(new BigDecimal("3.50"));
+        }
+        return new ParcelRow(id, pick(CONTENTS, random), sender, address(random), dispatch, delivery, weight, price,
+            clientId, routeId);
+    }
+
+    /** Writes clients.csv, cars.csv, routes.csv, stops.csv and parcels.csv and returns the rows per file. */
+    public Map<String, Integer> writeCsv(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Map<String, Integer> rows = new LinkedHashMap<>();
+        try (BufferedWriter out = writer(directory, "clients.csv")) {
+            out.write("id,first_name,last_name,email,phone_number,address\n");
+            for (long id = 1; id <= clients; id++) {
+                ClientRow c = client(id);
+                line(out, c.id(), c.firstName(), c.lastName(), c.email(), c.phoneNumber(), c.address());
+            }
+        }
+        rows.put("clients.csv", clients);
+        try (BufferedWriter out = writer(directory, "cars.csv")) {
+            out.write("id,brand,model,registration_number,mileage,capacity\n");
+            for (long id = 1; id <= cars; id++) {
+                CarRow c = car(id);
+                line(out, c.id(), c.brand(), c.model(), c.registrationNumber(), c.mileage(), c.capacity());
+            }
+        }
+        rows.put("cars.csv", cars);
+        int stops = 0;
+        try (BufferedWriter out = writer(directory, "routes.csv");
+                BufferedWriter stopsOut = writer(directory, "stops.csv")) {
+            out.write("id,start_location,end_location,distance,estimated_time,scheduled_date,car_id\n");
+            stopsOut.write("route_plan_id,stop_order,stop_address\n");
+            for (long id = 1; id <= routes; id++) {
+                RouteRow r = route(id);
+                line(out, r.id(), r.startLocation(), r.endLocation(), r.distance(), r.estimatedTime(),
+                    r.scheduledDate(), r.carId());
+                for (int k = 0; k < r.stops().size(); k++) {
+                    line(stopsOut, r.id(), k, r.stops().get(k));
+                    stops++;
+                }
+            }
+        }
+        rows.put("routes.csv", routes);
+        rows.put("stops.csv", stops);
+        try (BufferedWriter out = writer(directory, "parcels.csv")) {
+            out.write("id,content_description,sender_address,recipient_address,dispatch_date,delivery_date,"
+                + "weight,price,client_id,route_plan_id\n");
+            for (long id = 1; id <= parcels; id++) {
+                ParcelRow p = parcel(id);
+                line(out, p.id(), p.contentDescription(), p.senderAddress(), p.recipientAddress(),
+                    TIMESTAMP.format(p.dispatchDate()), TIMESTAMP.format(p.deliveryDate()), p.weight(), p.price(), p.clientId(), p.routePlanId());
+            }
+        }
+        rows.put("parcels.csv", parcels);
+        return rows;
+    }
+
+    /** Writes the dataset to a temporary directory and imports it; the database must not hold these IDs yet. */
+    public Map<String, Integer> load(CsvBulkLoader loader) {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("courier-dataset");
+            writeCsv(directory);
+            return loader.load(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the generated dataset", e);
+        } finally {
+            if (directory != null) {
+                delete(directory);
+            }
+        }
+    }
+
+    /** {@code DatasetGenerator <dir> [seed clients cars routes parcels firstDay days]} writes the CSV files. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: DatasetGenerator <dir> [seed clients cars routes parcels firstDay days]");
+            System.exit(1);
+        }
+        DatasetGenerator generator = new DatasetGenerator(
+            args.length > 1 ? Long.parseLong(args[1]) : 42L,
+            args.length > 2 ? Integer.parseInt(args[2]) : 10_000,
+            args.length > 3 ? Integer.parseInt(args[3]) : 200,
+            args.length > 4 ? Integer.parseInt(args[4]) : 5_000,
+            args.length > 5 ? Integer.parseInt(args[5]) : 100_000,
+            args.length > 6 ? LocalDate.parse(args[6]) : LocalDate.of(2025, 5, 1),
+            args.length > 7 ? Integer.parseInt(args[7]) : 30);
+        long started = System.nanoTime();
+        Map<String, Integer> rows = generator.writeCsv(Path.of(args[0]));
+        System.out.printf("Wrote %s to %s in %d ms%n", rows, Path.of(args[0]).toAbsolutePath(),
+            (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private LocalDate routeDate(long id) {
+        return firstDay.plusDays(random(ROUTE, id).nextInt(days));
+    }
+
+    private SplittableRandom random(long table, long id) {
+        return new SplittableRandom(mix(mix(seed + table) + id));
+    }
+
+    // SplitMix64 finalizer, so neighbouring seeds and IDs give unrelated streams.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String address(SplittableRandom random) {
+        int city = weighted(CITY_WEIGHTS, random);
+        int[] prefix = POSTAL_PREFIXES[city];
+        StringBuilder address = new StringBuilder(48).append(pick(STREETS, random)).append(' ')
+            .append(1 + random.nextInt(200));
+        if (random.nextInt(10) < 3) {
+            address.append('/').append(1 + random.nextInt(60));
+        }
+        int region = prefix[0] + random.nextInt(prefix[1] - prefix[0] + 1);
+        int office = random.nextInt(1000);
+        address.append(", ").append(region / 10).append(region % 10).append('-')
+            .append(office / 100).append(office / 10 % 10).append(office % 10);
+        return address.append(' ').append(CITIES[city]).toString();
+    }
+
+    private static int weighted(int[] weights, SplittableRandom random) {
+        int r = random.nextInt(Arrays.stream(weights).sum());
+        int i = 0;
+        while (r >= weights[i]) {
+            r -= weights[i++];
+        }
+        return i;
+    }
+
+    private static <T> T pick(T[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String ascii(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "")
+            .replace('ł', 'l').replace('Ł', 'L').toLowerCase();
+    }
+
+    private static BufferedWriter writer(Path directory, String file) throws IOException {
+        return Files.newBufferedWriter(directory.resolve(file), StandardCharsets.UTF_8);
+    }
+
+    private static void line(BufferedWriter out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values[i];
+            if (value instanceof String s && (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0)) {
+                out.write('"');
+                out.write(s.replace("\"", "\"\""));
+                out.write('"');
+            } else if (value != null) {
+                out.write(value.toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // A leftover temporary directory is not worth failing the load for.
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package pl.polsl.courier.management.system.tracking;
+
+import java.time.LocalDateTime;
+
+/** One scanner event as stored in the {@link ParcelEventJournal}, with millisecond precision. */
+public record ParcelEvent(long parcelId, ParcelEventType type, LocalDateTime time) {
+}
@@ -0,0 +1,309 @@
+package pl.polsl.courier.management.system.tracking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of parcel scanner events in memory-mapped segment files under
+ * {@code courier.journal.dir} (a temporary directory when empty, matching the in-memory
+ * database). Records are 32 bytes: CRC32C of the rest, event type, parcel ID, epoch
+ * milliseconds (UTC) and the position of the parcel's previous record, so a parcel's history
+ * is a backward chain from the head position kept per parcel in memory. Positions are global
+ * byte offsets; a segment holds a whole number of records.
+ *
+ * <p>{@link #append} returns once the record is on disk. A single flusher thread forces
+ * everything written so far, so concurrent appends share one fsync (group commit). With
+ * {@code courier.journal.sync=false} appends return right away and the OS writes the pages
+ * back. If forcing fails, the flusher stops and every waiting and later synchronous append
+ * fails with the cause, as nothing appended after that can be made durable. At startup the
+ * segments are scanned up to the first empty or corrupt record to rebuild the heads; a corrupt
+ * record and everything after it are zeroed, so later appends are not followed by stale ones.
+ */
+@Slf4j
+@Component
+public class ParcelEventJournal {
+
+    static final int RECORD_SIZE = 32;
+    private static final long NONE = -1L;
+    private static final String SUFFIX = ".journal";
+    private static final ParcelEventType[] TYPES = ParcelEventType.values();
+
+    @Value("${courier.journal.dir:}")
+    private String dir;
+
+    @Value("${courier.journal.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${courier.journal.sync:true}")
+    private boolean sync;
+
+    private final Map<Long, Long> heads = new ConcurrentHashMap<>();
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushNeeded = flushLock.newCondition();
+    private final Condition flushed = flushLock.newCondition();
+
+    private Path directory;
+    private boolean temporary;
+    private long segmentBytes;
+    private Thread flusher;
+
+    // Next free position; written under appendLock.
+    private volatile long written;
+    // Guarded by flushLock.
+    private long durable;
+    private long requested;
+    private boolean closed;
+    private RuntimeException failure;
+
+    @PostConstruct
+    void open() throws IOException {
+        temporary = dir.isBlank();
+        directory = temporary ? Files.createTempDirectory("courier-journal") : Files.createDirectories(Path.of(dir));
+        segmentBytes = segmentSize.toBytes() / RECORD_SIZE * RECORD_SIZE;
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        if (!files.isEmpty() && Files.size(files.get(0)) != segmentBytes) {
+            // Positions depend on the segment size, so an existing journal keeps its own.
+            segmentBytes = Files.size(files.get(0));
+            log.info("Journal {} keeps its segment size of {} bytes", directory, segmentBytes);
+        }
+        for (Path file : files) {
+            segments.add(map(file));
+        }
+        written = recover();
+        durable = written;
+        requested = written;
+
+        flusher = new Thread(this::flushLoop, "parcel-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Parcel event journal at {}: {} events for {} parcels", directory, written / RECORD_SIZE, heads.size());
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        flushLock.lock();
+        try {
+            closed = true;
+            flushNeeded.signal();
+        } finally {
+            flushLock.unlock();
+        }
+        flusher.join();
+        if (failure == null) {
+            force(durable, written);
+        }
+        if (temporary) {
+            try (Stream<Path> list = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) list::iterator) {
+                    Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                log.warn("Cannot delete temporary journal {}", directory, e);
+            }
+        }
+    }
+
+    public ParcelEvent append(long parcelId, ParcelEventType type, LocalDateTime time) {
+        long millis = time.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long end;
+        appendLock.lock();
+        try {
+            long position = written;
+            MappedByteBuffer segment = segmentForWrite(position);
+            int offset = (int) (position % segmentBytes);
+            segment.put(offset + 4, (byte) (type.ordinal() + 1));
+            segment.putLong(offset + 8, parcelId);
+            segment.putLong(offset + 16, millis);
+            segment.putLong(offset + 24, heads.getOrDefault(parcelId, NONE));
+            segment.putInt(offset, checksum(segment, offset));
+            heads.put(parcelId, position);
+            end = position + RECORD_SIZE;
+            written = end;
+        } finally {
+            appendLock.unlock();
+        }
+        if (sync) {
+            awaitDurable(end);
+        }
+        return new ParcelEvent(parcelId, type, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+    }
+
+    /** The parcel's events in the order they were appended; empty for a parcel without any. */
+    public List<ParcelEvent> events(long parcelId) {
+        List<ParcelEvent> events = new ArrayList<>();
+        for (long position = heads.getOrDefault(parcelId, NONE); position != NONE; ) {
+            MappedByteBuffer segment = segments.get((int) (position / segmentBytes));
+            int offset = (int) (position % segmentBytes);
+            events.add(new ParcelEvent(parcelId, TYPES[segment.get(offset + 4) - 1],
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(segment.getLong(offset + 16)), ZoneOffset.UTC)));
+            position = segment.getLong(offset + 24);
+        }
+        Collections.reverse(events);
+        return events;
+    }
+
+    private MappedByteBuffer segmentForWrite(long position) {
+        int index = (int) (position / segmentBytes);
+        if (index == segments.size()) {
+            try {
+                segments.add(map(directory.resolve(String.format("%08d%s", index, SUFFIX))));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create journal segment " + index, e);
+            }
+        }
+        return segments.get(index);
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    // Scans every segment up to the first empty or corrupt record and returns its position.
+    private long recover() {
+        for (int index = 0; index < segments.size(); index++) {
+            MappedByteBuffer segment = segments.get(index);
+            for (int offset = 0; offset < segmentBytes; offset += RECORD_SIZE) {
+                long position = index * segmentBytes + offset;
+                byte type = segment.get(offset + 4);
+                if (type == 0) {
+                    return position;
+                }
+                if (type > TYPES.length || segment.getInt(offset) != checksum(segment, offset)) {
+                    log.warn("Journal {} ends with a torn record at position {}", directory, position);
+                    truncate(position);
+                    return position;
+                }
+                heads.put(segment.getLong(offset + 8), position);
+            }
+        }
+        return segments.size() * segmentBytes;
+    }
+
+    // Zeroes everything from the position on, so a scan stops there again after new appends.
+    private void truncate(long position) {
+        long end = segments.size() * segmentBytes;
+        for (long from = position; from < end; from += RECORD_SIZE) {
+            MappedByteBuffer segment = segments.get((int) (from / segmentBytes));
+            int offset = (int) (from % segmentBytes);
+            for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+                segment.putLong(offset + i, 0L);
+            }
+        }
+        force(position, end);
+    }
+
+    private void awaitDurable(long end) {
+        flushLock.lock();
+        try {
+            if (requested < end) {
+                requested = end;
+                flushNeeded.signal();
+            }
+            while (durable < end) {
+                if (failure != null) {
+                    throw new IllegalStateException("Parcel event journal cannot write to disk", failure);
+                }
+                if (closed) {
+                    throw new IllegalStateException("Parcel event journal is closed");
+                }
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long from;
+            flushLock.lock();
+            try {
+                while (requested <= durable && !closed) {
+                    flushNeeded.awaitUninterruptibly();
+                }
+                if (closed) {
+                    flushed.signalAll();
+                    return;
+                }
+                from = durable;
+            } finally {
+                flushLock.unlock();
+            }
+            // Everything appended by now rides on this fsync, not just the request that woke us.
+            long to = written;
+            RuntimeException error = null;
+            try {
+                force(from, to);
+            } catch (RuntimeException e) {
+                log.error("Cannot force journal {}, synchronous appends fail from now on", directory, e);
+                error = e;
+            }
+            flushLock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = to;
+                }
+                flushed.signalAll();
+            } finally {
+                flushLock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    // Package-private so tests can make it fail.
+    void force(long from, long to) {
+        while (from < to) {
+            int index = (int) (from / segmentBytes);
+            int offset = (int) (from % segmentBytes);
+            int length = (int) Math.min(to - from, segmentBytes - offset);
+            segments.get(index).force(offset, length);
+            from += length;
+        }
+    }
+
+    private static int checksum(MappedByteBuffer segment, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset + 4, RECORD_SIZE - 4));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,11 @@
+package pl.polsl.courier.management.system.tracking;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Typ zdarzenia śledzenia przesyłki")
+public enum ParcelEventType {
+    PICKED_UP,
+    AT_HUB,
+    OUT_FOR_DELIVERY,
+    DELIVERED
+}
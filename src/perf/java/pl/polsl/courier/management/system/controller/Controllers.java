@@ -0,0 +1,25 @@
+package pl.polsl.courier.management.system.controller;
+
+import java.lang.reflect.Field;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Controllers wired with only what their toModel needs, without an application context.
+ * Outside of a request the links are relative, both from linkTo and from LinkFactory.
+ */
+final class Controllers {
+
+    final LinkFactory links = new LinkFactory();
+    final ClientController client = withLinks(new ClientController());
+    final ParcelController parcel = withLinks(new ParcelController());
+    final RoutePlanController routePlan = withLinks(new RoutePlanController());
+    final CarController car = withLinks(new CarController());
+
+    private <T> T withLinks(T controller) {
+        Field field = ReflectionUtils.findField(controller.getClass(), "links", LinkFactory.class);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, controller, links);
+        return controller;
+    }
+}
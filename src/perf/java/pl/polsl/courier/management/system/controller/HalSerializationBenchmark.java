@@ -0,0 +1,97 @@
+package pl.polsl.courier.management.system.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pl.polsl.courier.management.system.dto.CarDTO;
+import pl.polsl.courier.management.system.dto.ClientDTO;
+import pl.polsl.courier.management.system.dto.ParcelDTO;
+import pl.polsl.courier.management.system.dto.RoutePlanDTO;
+import pl.polsl.courier.management.system.perf.Fixtures;
+
+/**
+ * HAL JSON serialization of ready CollectionModel results, with the same relation names
+ * and date handling as the application's responses. Output goes to a discarding stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HalSerializationBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private ObjectMapper mapper;
+    private CollectionModel<EntityModel<ClientDTO>> clients;
+    private CollectionModel<EntityModel<ParcelDTO>> parcels;
+    private CollectionModel<EntityModel<RoutePlanDTO>> routes;
+    private CollectionModel<EntityModel<CarDTO>> cars;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        mapper.registerModule(new Jackson2HalModule());
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+            new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        Fixtures fixtures = new Fixtures(size);
+        Controllers controllers = new Controllers();
+        clients = collect(fixtures.clients, controllers.client::toModel);
+        parcels = collect(fixtures.parcels, controllers.parcel::toModel);
+        routes = collect(fixtures.routes, controllers.routePlan::toModel);
+        cars = collect(fixtures.cars, car -> controllers.car.toModel(new CarDTO(car)));
+    }
+
+    @Benchmark
+    public void clients() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), clients);
+    }
+
+    @Benchmark
+    public void parcels() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), parcels);
+    }
+
+    @Benchmark
+    public void routePlans() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), routes);
+    }
+
+    @Benchmark
+    public void cars() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), cars);
+    }
+
+    private static <E, D> CollectionModel<EntityModel<D>> collect(List<E> entities,
+            Function<E, EntityModel<D>> toModel) {
+        return CollectionModel.of(entities.stream().map(toModel).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,51 @@
+package pl.polsl.courier.management.system.controller;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+
+/** One link built by linkTo(methodOn(...)) against the same link from LinkFactory. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBenchmark {
+
+    private final LinkFactory links = new LinkFactory();
+    private long id = 1;
+    private final String registrationNumber = "WX 12345";
+
+    @Benchmark
+    public Link parcelLinkTo() {
+        return linkTo(methodOn(ParcelController.class).getParcel(id)).withRel("parcel");
+    }
+
+    @Benchmark
+    public Link parcelLinkFactory() {
+        return links.parcel(id).withRel("parcel");
+    }
+
+    @Benchmark
+    public Link carLinkTo() {
+        return linkTo(methodOn(CarController.class).getCarByRegistrationNumber(registrationNumber)).withSelfRel();
+    }
+
+    @Benchmark
+    public Link carLinkFactory() {
+        return links.car(registrationNumber).withSelfRel();
+    }
+}
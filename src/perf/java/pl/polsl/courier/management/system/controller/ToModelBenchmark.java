@@ -0,0 +1,86 @@
+package pl.polsl.courier.management.system.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+
+import pl.polsl.courier.management.system.dto.CarDTO;
+import pl.polsl.courier.management.system.dto.ClientDTO;
+import pl.polsl.courier.management.system.dto.ParcelDTO;
+import pl.polsl.courier.management.system.dto.RoutePlanDTO;
+import pl.polsl.courier.management.system.entity.Car;
+import pl.polsl.courier.management.system.entity.Client;
+import pl.polsl.courier.management.system.entity.Parcel;
+import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.perf.Fixtures;
+
+/** Each controller's toModel over a whole result list: DTO mapping plus its links. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToModelBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private Fixtures fixtures;
+    private Controllers controllers;
+
+    @Setup
+    public void setUp() {
+        fixtures = new Fixtures(size);
+        controllers = new Controllers();
+    }
+
+    @Benchmark
+    public List<EntityModel<ClientDTO>> client() {
+        List<EntityModel<ClientDTO>> result = new ArrayList<>(size);
+        for (Client client : fixtures.clients) {
+            result.add(controllers.client.toModel(client));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<EntityModel<ParcelDTO>> parcel() {
+        List<EntityModel<ParcelDTO>> result = new ArrayList<>(size);
+        for (Parcel parcel : fixtures.parcels) {
+            result.add(controllers.parcel.toModel(parcel));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<EntityModel<RoutePlanDTO>> routePlan() {
+        List<EntityModel<RoutePlanDTO>> result = new ArrayList<>(size);
+        for (RoutePlan route : fixtures.routes) {
+            result.add(controllers.routePlan.toModel(route));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<EntityModel<CarDTO>> car() {
+        List<EntityModel<CarDTO>> result = new ArrayList<>(size);
+        for (Car car : fixtures.cars) {
+            result.add(controllers.car.toModel(new CarDTO(car)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package pl.polsl.courier.management.system.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pl.polsl.courier.management.system.entity.Car;
+import pl.polsl.courier.management.system.entity.Client;
+import pl.polsl.courier.management.system.entity.Parcel;
+import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.perf.Fixtures;
+
+/** Entity to DTO mapping of a whole result list, as the list endpoints do it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private Fixtures fixtures;
+
+    @Setup
+    public void setUp() {
+        fixtures = new Fixtures(size);
+    }
+
+    @Benchmark
+    public List<ClientDTO> clientDto() {
+        List<ClientDTO> result = new ArrayList<>(size);
+        for (Client client : fixtures.clients) {
+            result.add(new ClientDTO(client));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ParcelDTO> parcelDto() {
+        List<ParcelDTO> result = new ArrayList<>(size);
+        for (Parcel parcel : fixtures.parcels) {
+            result.add(new ParcelDTO(parcel));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<RoutePlanDTO> routePlanDto() {
+        List<RoutePlanDTO> result = new ArrayList<>(size);
+        for (RoutePlan route : fixtures.routes) {
+            result.add(new RoutePlanDTO(route));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<CarDTO> carDto() {
+        List<CarDTO> result = new ArrayList<>(size);
+        for (Car car : fixtures.cars) {
+            result.add(new CarDTO(car));
+        }
+        return result;
+    }
+}
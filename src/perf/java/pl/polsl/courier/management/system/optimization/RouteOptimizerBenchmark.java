@@ -0,0 +1,81 @@
+package pl.polsl.courier.management.system.optimization;
+
+import java.lang.reflect.Field;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Solve time of {@link RouteOptimizer} against stop count, with the default 16 restarts on the
+ * machine's cores. Stops are scattered over a 50 km square from a fixed seed, with the start
+ * and end at opposite corners, so every run solves the same instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteOptimizerBenchmark {
+
+    @Param({ "10", "50", "200", "1000" })
+    private int stops;
+
+    private RouteOptimizer optimizer;
+    private double[][] dist;
+
+    @Setup
+    public void setUp() {
+        optimizer = new RouteOptimizer();
+        set("restarts", 16);
+        set("parallelism", 0);
+        set("seed", 42L);
+        optimizer.start();
+
+        SplittableRandom random = new SplittableRandom(42);
+        int n = stops + 2;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        x[n - 1] = 50;
+        y[n - 1] = 50;
+        for (int i = 1; i < n - 1; i++) {
+            x[i] = random.nextDouble(50);
+            y[i] = random.nextDouble(50);
+        }
+        dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                dist[i][j] = Math.hypot(x[i] - x[j], y[i] - y[j]);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        optimizer.stop();
+    }
+
+    @Benchmark
+    public OptimizedRoute optimize() {
+        return optimizer.optimize(dist);
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(RouteOptimizer.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, optimizer, value);
+    }
+}
@@ -0,0 +1,90 @@
+package pl.polsl.courier.management.system.perf;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import pl.polsl.courier.management.system.entity.Car;
+import pl.polsl.courier.management.system.entity.Client;
+import pl.polsl.courier.management.system.entity.Parcel;
+import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.entity.RouteStop;
+
+/**
+ * Detached entity graph for benchmarks: size cars, clients, routes and parcels, where
+ * parcel i belongs to client i and route i, and route i has three stops and car i.
+ */
+public final class Fixtures {
+
+    private static final String[] CITIES = { "Warszawa", "Kraków", "Katowice", "Gliwice", "Wrocław" };
+
+    public final List<Car> cars;
+    public final List<Client> clients;
+    public final List<RoutePlan> routes;
+    public final List<Parcel> parcels;
+
+    public Fixtures(int size) {
+        cars = new ArrayList<>(size);
+        clients = new ArrayList<>(size);
+        routes = new ArrayList<>(size);
+        parcels = new ArrayList<>(size);
+        LocalDate day = LocalDate.of(2025, 4, 25);
+        for (int i = 0; i < size; i++) {
+            long id = i + 1;
+
+            Car car = new Car();
+            car.setId(id);
+            car.setBrand(i % 2 == 0 ? "Ford" : "Renault");
+            car.setModel(i % 2 == 0 ? "Transit" : "Master");
+            car.setRegistrationNumber(String.format("WX%05d", i));
+            car.setMileage(10_000 + i);
+            car.setCapacity(1.5);
+            car.setRoutes(new ArrayList<>());
+            cars.add(car);
+
+            Client client = new Client();
+            client.setId(id);
+            client.setFirstName("Jan");
+            client.setLastName("Kowalski" + i);
+            client.setEmail("jan.kowalski" + i + "@example.com");
+            client.setPhoneNumber("+48" + (600_000_000 + i));
+            client.setAddress(address(i));
+            clients.add(client);
+
+            RoutePlan route = new RoutePlan();
+            route.setId(id);
+            route.setStartLocation(address(i));
+            route.setEndLocation(address(i + 1));
+            route.setDistance(15.4);
+            route.setEstimatedTime(45);
+            route.setScheduleDate(day.plusDays(i % 30));
+            route.setStops(new ArrayList<>(List.of(
+                RouteStop.of(address(i + 2)), RouteStop.of(address(i + 3)), RouteStop.of(address(i + 4)))));
+            route.setCar(car);
+            car.getRoutes().add(route);
+            routes.add(route);
+
+            Parcel parcel = new Parcel();
+            parcel.setId(id);
+            parcel.setContentDescription("Dokumenty");
+            parcel.setSenderAddress(address(i));
+            parcel.setRecipientAddress(address(i + 1));
+            parcel.setDispatchDate(LocalDateTime.of(2025, 4, 24, 9, 30));
+            parcel.setDeliveryDate(LocalDateTime.of(2025, 4, 25, 14, 45));
+            parcel.setWeight(new BigDecimal("2.50"));
+            parcel.setPrice(new BigDecimal("50.00"));
+            parcel.setClient(client);
+            parcel.setRoutePlan(route);
+            client.getParcels().add(parcel);
+            route.getParcel().add(parcel);
+            parcels.add(parcel);
+        }
+    }
+
+    private static String address(int i) {
+        return String.format("ul. Przykładowa %d, %02d-%03d %s", i % 200 + 1, i % 100, i % 1000,
+            CITIES[i % CITIES.length]);
+    }
+}
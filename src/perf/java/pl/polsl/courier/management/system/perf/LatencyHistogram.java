@@ -0,0 +1,78 @@
+package pl.polsl.courier.management.system.perf;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent log-linear histogram of latencies in microseconds. Values below 256 are exact,
+ * larger ones fall into buckets 1/128 of their power of two wide, so a percentile is off by
+ * under 1%. Percentiles report the upper edge of their bucket.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 8;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF = SUB_COUNT / 2;
+    private static final int MAX_SHIFT = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_COUNT + MAX_SHIFT * HALF);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(index(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    double mean() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /** Smallest recorded bucket edge with at least the given fraction of values at or below it. */
+    long percentile(double fraction) {
+        long n = total.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperEdge(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = Math.min(63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1), MAX_SHIFT);
+        long sub = Math.min(value >>> shift, SUB_COUNT - 1);
+        return SUB_COUNT + (shift - 1) * HALF + (int) (sub - HALF);
+    }
+
+    private static long upperEdge(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_COUNT) / HALF + 1;
+        long sub = (index - SUB_COUNT) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
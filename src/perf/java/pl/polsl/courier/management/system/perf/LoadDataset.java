@@ -0,0 +1,89 @@
+package pl.polsl.courier.management.system.perf;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.springframework.context.ApplicationContext;
+
+import pl.polsl.courier.management.system.seed.CsvBulkLoader;
+import pl.polsl.courier.management.system.seed.DatasetGenerator;
+
+/**
+ * Seeded dataset bulk loaded into the empty database before a load run, plus the keys the
+ * traffic mix draws from. The same seed and sizes give the same rows, so runs on
+ * different commits query the same data.
+ */
+final class LoadDataset {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2025, 5, 1);
+
+    private static final String[] STREETS = {
+        "Lipowa", "Polna", "Lesna", "Sloneczna", "Krotka", "Szkolna", "Ogrodowa", "Lakowa",
+        "Brzozowa", "Kwiatowa", "Koscielna", "Sosnowa", "Zielona", "Parkowa", "Akacjowa",
+        "Kolejowa", "Mickiewicza", "Dluga", "Polnocna", "Wierzbowa"
+    };
+    private static final String[] CITIES = {
+        "Warszawa", "Krakow", "Katowice", "Gliwice", "Wroclaw", "Poznan", "Gdansk", "Lodz"
+    };
+
+    final int days;
+    final long[] clientIds;
+    final String[] clientEmails;
+    final String[] registrationNumbers;
+    final long[] routeIds;
+    final LocalDate[] routeDates;
+    final String[] routeStartFragments;
+    final String[] routeStopFragments;
+    final long[] parcelIds;
+
+    private LoadDataset(int clients, int cars, int routes, int parcels, int days) {
+        this.days = days;
+        clientIds = new long[clients];
+        clientEmails = new String[clients];
+        registrationNumbers = new String[cars];
+        routeIds = new long[routes];
+        routeDates = new LocalDate[routes];
+        routeStartFragments = new String[routes];
+        routeStopFragments = new String[routes];
+        parcelIds = new long[parcels];
+    }
+
+    static LoadDataset generate(ApplicationContext context, long seed,
+            int clients, int cars, int routes, int parcels, int days) {
+        LoadDataset data = new LoadDataset(clients, cars, routes, parcels, days);
+        DatasetGenerator generator = new DatasetGenerator(seed, clients, cars, routes, parcels, FIRST_DAY, days);
+        // The loader also rebuilds the in-memory indexes built at startup, before these rows existed.
+        generator.load(context.getBean(CsvBulkLoader.class));
+
+        for (int i = 0; i < clients; i++) {
+            data.clientIds[i] = i + 1;
+            data.clientEmails[i] = generator.client(i + 1).email();
+        }
+        for (int i = 0; i < cars; i++) {
+            data.registrationNumbers[i] = generator.car(i + 1).registrationNumber();
+        }
+        for (int i = 0; i < routes; i++) {
+            DatasetGenerator.RouteRow route = generator.route(i + 1);
+            data.routeIds[i] = route.id();
+            data.routeDates[i] = route.scheduledDate();
+            data.routeStartFragments[i] = street(route.startLocation());
+            data.routeStopFragments[i] = street(route.stops().get(0));
+        }
+        for (int i = 0; i < parcels; i++) {
+            data.parcelIds[i] = i + 1;
+        }
+        return data;
+    }
+
+    /** "Lipowa 12" out of "ul. Lipowa 12/3, 00-123 Kraków"; an encoded '/' would not reach the controller. */
+    private static String street(String address) {
+        int end = address.indexOf('/');
+        return address.substring(address.indexOf(' ') + 1, end >= 0 ? end : address.indexOf(','));
+    }
+
+    static String address(Random random) {
+        return String.format("ul. %s %d, %02d-%03d %s", STREETS[random.nextInt(STREETS.length)],
+            1 + random.nextInt(150), random.nextInt(100), random.nextInt(1000),
+            CITIES[random.nextInt(CITIES.length)]);
+    }
+}
@@ -0,0 +1,139 @@
+package pl.polsl.courier.management.system.perf;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Requests the load driver can replay, each drawing its keys from the generated dataset.
+ * The key is what a traffic mix refers to, e.g. "parcel.get=20,route.date=5".
+ */
+enum LoadEndpoint {
+
+    CLIENT_GET("client.get", 10) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/client/" + pick(data.clientIds, random));
+        }
+    },
+    CLIENT_EMAIL("client.email", 5) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/client/email/" + encode(data.clientEmails[random.nextInt(data.clientEmails.length)]));
+        }
+    },
+    CLIENT_CREATE("client.create", 1) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            long n = SEQUENCE.incrementAndGet();
+            return post(base + "/client", "{\"firstName\":\"Jan\",\"lastName\":\"Load\",\"email\":\"load.new" + n
+                + "@example.com\",\"phoneNumber\":\"+4971" + String.format("%07d", n) + "\",\"address\":\""
+                + LoadDataset.address(random) + "\"}");
+        }
+    },
+    CAR_GET("car.get", 10) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/car/" + encode(data.registrationNumbers[random.nextInt(data.registrationNumbers.length)]));
+        }
+    },
+    CAR_AVAILABLE("car.available", 5) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/car/available?date=" + LoadDataset.FIRST_DAY.plusDays(random.nextInt(data.days)));
+        }
+    },
+    ROUTE_GET("route.get", 10) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/route/" + pick(data.routeIds, random));
+        }
+    },
+    ROUTE_DATE("route.date", 5) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/route/date/" + data.routeDates[random.nextInt(data.routeDates.length)]);
+        }
+    },
+    ROUTE_START_FRAGMENT("route.start-fragment", 3) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/route/start/fragment/"
+                + encode(data.routeStartFragments[random.nextInt(data.routeStartFragments.length)]));
+        }
+    },
+    ROUTE_STOP_FRAGMENT("route.stop-fragment", 3) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/route/stop/fragment/"
+                + encode(data.routeStopFragments[random.nextInt(data.routeStopFragments.length)]));
+        }
+    },
+    PARCEL_GET("parcel.get", 20) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return get(base + "/parcel/" + pick(data.parcelIds, random));
+        }
+    },
+    PARCEL_PAGE("parcel.page", 5) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            String after = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(pick(data.parcelIds, random)).getBytes(StandardCharsets.US_ASCII));
+            return get(base + "/parcel?size=100&after=" + after);
+        }
+    },
+    PARCEL_CREATE("parcel.create", 3) {
+        @Override
+        HttpRequest.Builder request(String base, LoadDataset data, Random random) {
+            return post(base + "/parcel", "{\"contentDescription\":\"Load\",\"senderAddress\":\""
+                + LoadDataset.address(random) + "\",\"recipientAddress\":\"" + LoadDataset.address(random)
+                + "\",\"dispatchDate\":\"2025-05-01T08:00:00\",\"deliveryDate\":\"2025-05-02T12:00:00\","
+                + "\"weight\":2.5,\"price\":19.99,\"clientId\":" + pick(data.clientIds, random)
+                + ",\"routePlanId\":" + pick(data.routeIds, random) + "}");
+        }
+    };
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    final String key;
+    final int defaultWeight;
+
+    LoadEndpoint(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(String base, LoadDataset data, Random random);
+
+    static LoadEndpoint of(String key) {
+        for (LoadEndpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint '" + key + "'");
+    }
+
+    private static long pick(long[] ids, Random random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static HttpRequest.Builder get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET();
+    }
+
+    private static HttpRequest.Builder post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+}
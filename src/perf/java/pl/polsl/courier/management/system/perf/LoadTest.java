@@ -0,0 +1,299 @@
+package pl.polsl.courier.management.system.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pl.polsl.courier.management.system.Application;
+
+/**
+ * End-to-end load driver. Boots the application on a random port without the data.sql rows,
+ * bulk loads a seeded dataset, then lets closed-loop virtual users replay a weighted mix of
+ * requests: a warm-up whose samples are dropped, followed by the measured window. Throughput and latency percentiles
+ * per endpoint go to a JSON file together with the commit and every setting, so two runs
+ * are comparable when their settings match.
+ *
+ * <p>Settings are Spring properties, e.g. {@code --load.users=128 --load.duration=60
+ * --load.mix=parcel.get=20,route.date=5}; anything else is passed to the application, e.g.
+ * {@code --courier.threads.virtual=true}. Each user is a virtual thread with its own
+ * connection, so thousands of users do not need thousands of driver threads; Tomcat accepts
+ * up to {@code load.users} connections so they all reach the server.
+ */
+public final class LoadTest {
+
+    private static final String DEFAULT_MIX = mix(LoadEndpoint.values());
+
+    public static void main(String[] args) throws Exception {
+        // DevTools is on the test classpath; its restarter and development defaults would
+        // make the measured application differ from a packaged one.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+            .properties("server.port=0", "spring.devtools.add-properties=false", "spring.sql.init.mode=never",
+                "server.tomcat.max-connections=${load.users:64}", "server.tomcat.accept-count=1000")
+            .run(args);
+        try {
+            new LoadTest().run(context);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        Environment env = context.getEnvironment();
+        int users = env.getProperty("load.users", Integer.class, 64);
+        int warmup = env.getProperty("load.warmup", Integer.class, 10);
+        int duration = env.getProperty("load.duration", Integer.class, 30);
+        long thinkTime = env.getProperty("load.think-time-ms", Long.class, 0L);
+        long seed = env.getProperty("load.seed", Long.class, 42L);
+        int clients = env.getProperty("load.clients", Integer.class, 5_000);
+        int cars = env.getProperty("load.cars", Integer.class, 200);
+        int routes = env.getProperty("load.routes", Integer.class, 2_000);
+        int parcels = env.getProperty("load.parcels", Integer.class, 20_000);
+        int days = env.getProperty("load.days", Integer.class, 30);
+        String output = env.getProperty("load.output", "target/load-result.json");
+        String baselineFile = env.getProperty("load.baseline");
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode baseline = baselineFile == null ? null : mapper.readTree(new File(baselineFile)).get("endpoints");
+        Map<LoadEndpoint, Integer> weights = parseMix(env.getProperty("load.mix", DEFAULT_MIX));
+
+        long started = System.nanoTime();
+        LoadDataset data = LoadDataset.generate(context, seed, clients, cars, routes, parcels, days);
+        System.out.printf("Dataset: %d clients, %d cars, %d routes, %d parcels in %d ms%n",
+            clients, cars, routes, parcels, (System.nanoTime() - started) / 1_000_000);
+
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+        Map<LoadEndpoint, Stats> stats = new EnumMap<>(LoadEndpoint.class);
+        weights.keySet().forEach(endpoint -> stats.put(endpoint, new Stats()));
+        LoadEndpoint[] wheel = wheel(weights);
+
+        HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+        long measureTo = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+        System.out.printf("Running %d users against %s (%s threads): %d s warm-up, %d s measured%n", users, base,
+            env.getProperty("courier.threads.virtual", Boolean.class, false) ? "virtual" : "platform", warmup, duration);
+
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        for (int u = 0; u < users; u++) {
+            Random random = new Random(seed * 31 + u);
+            pool.execute(() -> {
+                while (System.nanoTime() < measureTo) {
+                    LoadEndpoint endpoint = wheel[random.nextInt(wheel.length)];
+                    HttpRequest request = endpoint.request(base, data, random).timeout(Duration.ofSeconds(30)).build();
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long t1 = System.nanoTime();
+                    if (t0 >= measureFrom && t0 < measureTo) {
+                        stats.get(endpoint).record((t1 - t0) / 1_000, status);
+                    }
+                    if (thinkTime > 0) {
+                        try {
+                            Thread.sleep(thinkTime);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(warmup + duration + 60L, TimeUnit.SECONDS);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", users);
+        config.put("warmupSeconds", warmup);
+        config.put("durationSeconds", duration);
+        config.put("thinkTimeMs", thinkTime);
+        config.put("seed", seed);
+        config.put("serverThreads", env.getProperty("courier.threads.virtual", Boolean.class, false) ? "virtual" : "platform");
+        config.put("connectionPool", env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Map<String, Integer> dataset = new LinkedHashMap<>();
+        dataset.put("clients", clients);
+        dataset.put("cars", cars);
+        dataset.put("routes", routes);
+        dataset.put("parcels", parcels);
+        dataset.put("days", days);
+        config.put("dataset", dataset);
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        weights.forEach((endpoint, weight) -> mix.put(endpoint.key, weight));
+        config.put("mix", mix);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<LoadEndpoint, Stats> entry : stats.entrySet()) {
+            endpoints.put(entry.getKey().key, entry.getValue().summary(duration));
+            requests += entry.getValue().latency.count();
+            errors += entry.getValue().errors.get();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("commit", git("rev-parse", "HEAD"));
+        result.put("dirty", !git("status", "--porcelain", "--untracked-files=no").isEmpty());
+        result.put("startedAt", Instant.now().minusSeconds(warmup + duration).toString());
+        result.put("java", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        result.put("cpus", Runtime.getRuntime().availableProcessors());
+        result.put("config", config);
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("requests", requests);
+        total.put("errors", errors);
+        total.put("throughput", round((double) requests / duration));
+        result.put("total", total);
+        result.put("endpoints", endpoints);
+
+        File file = new File(output);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file, result);
+        print(endpoints, baseline);
+        System.out.printf("%d requests, %d errors, %.1f req/s; written to %s%n",
+            requests, errors, (double) requests / duration, file.getAbsolutePath());
+    }
+
+    private static Map<LoadEndpoint, Integer> parseMix(String mix) {
+        Map<LoadEndpoint, Integer> weights = new EnumMap<>(LoadEndpoint.class);
+        for (String part : mix.split(",")) {
+            String[] keyWeight = part.trim().split("=");
+            if (keyWeight.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight, got '" + part + "'");
+            }
+            int weight = Integer.parseInt(keyWeight[1].trim());
+            if (weight > 0) {
+                weights.put(LoadEndpoint.of(keyWeight[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no endpoints: " + mix);
+        }
+        return weights;
+    }
+
+    private static String mix(LoadEndpoint[] endpoints) {
+        List<String> parts = new ArrayList<>();
+        for (LoadEndpoint endpoint : endpoints) {
+            parts.add(endpoint.key + "=" + endpoint.defaultWeight);
+        }
+        return String.join(",", parts);
+    }
+
+    // Every endpoint repeated as often as its weight; a uniform pick then follows the mix.
+    private static LoadEndpoint[] wheel(Map<LoadEndpoint, Integer> weights) {
+        List<LoadEndpoint> wheel = new ArrayList<>();
+        weights.forEach((endpoint, weight) -> {
+            for (int k = 0; k < weight; k++) {
+                wheel.add(endpoint);
+            }
+        });
+        return wheel.toArray(new LoadEndpoint[0]);
+    }
+
+    private static void print(Map<String, Object> endpoints, JsonNode baseline) {
+        System.out.printf("%-22s %9s %8s %9s %9s %9s %9s %9s%n",
+            "endpoint", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.forEach((key, value) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> s = (Map<String, Object>) value;
+            System.out.printf("%-22s %9.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", key,
+                s.get("throughput"), s.get("errors"), s.get("p50"), s.get("p95"), s.get("p99"),
+                s.get("p999"), s.get("max"));
+            JsonNode before = baseline == null ? null : baseline.get(key);
+            if (before != null) {
+                System.out.printf("%-22s %8s%% %8s %8s%% %8s%% %8s%% %8s%%%n", "  vs baseline",
+                    delta(s.get("throughput"), before.get("throughput")), "",
+                    delta(s.get("p50"), before.get("p50")), delta(s.get("p95"), before.get("p95")),
+                    delta(s.get("p99"), before.get("p99")), delta(s.get("p999"), before.get("p999")));
+            }
+        });
+    }
+
+    private static String delta(Object now, JsonNode before) {
+        double was = before == null ? 0 : before.asDouble();
+        if (was == 0) {
+            return "-";
+        }
+        return String.format("%+.1f", 100 * (((Number) now).doubleValue() - was) / was);
+    }
+
+    private static String git(String... command) {
+        List<String> args = new ArrayList<>();
+        args.add("git");
+        args.addAll(List.of(command));
+        try {
+            Process process = new ProcessBuilder(args).redirectErrorStream(true).start();
+            String out = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor() == 0 ? out : "";
+        } catch (IOException e) {
+            return "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static final class Stats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long micros, int status) {
+            latency.record(micros);
+            if (status < 200 || status >= 400) {
+                errors.incrementAndGet();
+            }
+        }
+
+        // Latencies in milliseconds.
+        Map<String, Object> summary(int seconds) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", latency.count());
+            summary.put("errors", errors.get());
+            summary.put("throughput", round((double) latency.count() / seconds));
+            summary.put("mean", round(latency.mean() / 1000));
+            summary.put("p50", round(latency.percentile(0.50) / 1000.0));
+            summary.put("p95", round(latency.percentile(0.95) / 1000.0));
+            summary.put("p99", round(latency.percentile(0.99) / 1000.0));
+            summary.put("p999", round(latency.percentile(0.999) / 1000.0));
+            summary.put("max", round(latency.max() / 1000.0));
+            return summary;
+        }
+    }
+}
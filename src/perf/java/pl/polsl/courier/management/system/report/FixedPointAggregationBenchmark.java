@@ -0,0 +1,119 @@
+package pl.polsl.courier.management.system.report;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Weight and price totals per route over parcels held as BigDecimal values, the way entities
+ * and projections deliver them, against the same parcels as grams and grosze in long arrays.
+ * Both return one BigDecimal pair per route. Run with {@code -prof gc} to see the allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FixedPointAggregationBenchmark {
+
+    @Param({ "10000000" })
+    private int parcels;
+
+    @Param({ "100" })
+    private int parcelsPerRoute;
+
+    private BigDecimal[] weights;
+    private BigDecimal[] prices;
+    private long[] grams;
+    private long[] grosze;
+    private int[] routeStarts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        weights = new BigDecimal[parcels];
+        prices = new BigDecimal[parcels];
+        grams = new long[parcels];
+        grosze = new long[parcels];
+        for (int i = 0; i < parcels; i++) {
+            // Two decimals like the columns: up to 31.5 kg and up to 150 zł.
+            weights[i] = BigDecimal.valueOf(1 + random.nextInt(3_150), 2);
+            prices[i] = BigDecimal.valueOf(999 + random.nextInt(14_000), 2);
+            grams[i] = FixedPoint.grams(weights[i]);
+            grosze[i] = FixedPoint.grosze(prices[i]);
+        }
+        int routes = (parcels + parcelsPerRoute - 1) / parcelsPerRoute;
+        routeStarts = new int[routes + 1];
+        for (int r = 0; r <= routes; r++) {
+            routeStarts[r] = Math.min(r * parcelsPerRoute, parcels);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[][] bigDecimal() {
+        int routes = routeStarts.length - 1;
+        BigDecimal[][] totals = new BigDecimal[routes][];
+        for (int r = 0; r < routes; r++) {
+            BigDecimal weight = BigDecimal.ZERO;
+            BigDecimal price = BigDecimal.ZERO;
+            for (int i = routeStarts[r]; i < routeStarts[r + 1]; i++) {
+                weight = weight.add(weights[i]);
+                price = price.add(prices[i]);
+            }
+            totals[r] = new BigDecimal[] { weight, price };
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public BigDecimal[][] fixedPoint() {
+        int routes = routeStarts.length - 1;
+        BigDecimal[][] totals = new BigDecimal[routes][];
+        for (int r = 0; r < routes; r++) {
+            long weight = 0;
+            long price = 0;
+            for (int i = routeStarts[r]; i < routeStarts[r + 1]; i++) {
+                weight += grams[i];
+                price += grosze[i];
+            }
+            totals[r] = new BigDecimal[] { FixedPoint.kilograms(weight), FixedPoint.zloty(price) };
+        }
+        return totals;
+    }
+
+    /** The day totals of the dispatch summary: one pass, no per-route result. */
+    @Benchmark
+    public BigDecimal[] bigDecimalTotal() {
+        BigDecimal weight = BigDecimal.ZERO;
+        BigDecimal price = BigDecimal.ZERO;
+        for (int i = 0; i < parcels; i++) {
+            weight = weight.add(weights[i]);
+            price = price.add(prices[i]);
+        }
+        return new BigDecimal[] { weight, price };
+    }
+
+    @Benchmark
+    public BigDecimal[] fixedPointTotal() {
+        long weight = 0;
+        long price = 0;
+        for (int i = 0; i < parcels; i++) {
+            weight += grams[i];
+            price += grosze[i];
+        }
+        return new BigDecimal[] { FixedPoint.kilograms(weight), FixedPoint.zloty(price) };
+    }
+}
@@ -0,0 +1,65 @@
+package pl.polsl.courier.management.system.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * {@link LinkFactory} must give exactly the links linkTo(methodOn(...)) gives, as the JSON
+ * output of the controllers depends on it.
+ */
+class LinkFactoryTest {
+
+    private final LinkFactory links = new LinkFactory();
+
+    @BeforeEach
+    void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/client/1");
+        request.setServerName("courier.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {
+        "jan.kowalski@example.com",
+        "jan+zamowienia@example.com",
+        "anna.nowak%1@example.com",
+        "zażółć@przykład.pl"
+    })
+    void clientByEmailMatchesLinkTo(String email) {
+        assertThat(links.clientByEmail(email).getHref())
+            .isEqualTo(linkTo(methodOn(ClientController.class).getByEmail(email)).withSelfRel().getHref());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = { "SK12345", "SK 12345", "WA/1234", "KR 1?2#3", "ŚL:01" })
+    void carMatchesLinkTo(String registrationNumber) {
+        assertThat(links.car(registrationNumber).getHref())
+            .isEqualTo(linkTo(methodOn(CarController.class).getCarByRegistrationNumber(registrationNumber))
+                .withSelfRel().getHref());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(longs = { 1L, 9_007_199_254_740_993L })
+    void clientMatchesLinkTo(Long id) {
+        assertThat(links.client(id).getHref())
+            .isEqualTo(linkTo(methodOn(ClientController.class).getById(id)).withSelfRel().getHref());
+    }
+}
@@ -0,0 +1,115 @@
+package pl.polsl.courier.management.system.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Every route plan listing must load its routes, cars, stops and parcel IDs in a fixed number
+ * of statements. Each endpoint is called for a day with one route and a day with 50 routes,
+ * and both calls must prepare the same number of statements. The SQL budget runs in enforce
+ * mode, so a call over its {@code @SqlBudget} fails as well.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "courier.sql.mode=enforce"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RoutePlanListStatementCountTest {
+
+    private static final int MANY = 50;
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void createRoutes() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        createRoutes("Solowa", "2031-01-01", 1);
+        createRoutes("Gromadna", "2031-01-02", MANY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/route/date/%2$s",
+        "/route/start/ul. %1$s 1, 00-001 Warszawa",
+        "/route/end/ul. %1$s 2, 00-002 Warszawa",
+        "/route/stop/ul. %1$s 3, 00-003 Warszawa",
+        "/route/start/fragment/%1$s 1",
+        "/route/end/fragment/%1$s 2",
+        "/route/stop/fragment/%1$s 3",
+        "/route/start/fragment/%1$.2s",
+        "/route/stop/fragment/%1$.2s"
+    })
+    void statementCountDoesNotDependOnRouteCount(String endpoint) throws Exception {
+        long one = statements(String.format(endpoint, "Solowa", "2031-01-01"));
+        long many = statements(String.format(endpoint, "Gromadna", "2031-01-02"));
+        assertThat(many).as("statements for %d routes vs. 1 route", MANY).isEqualTo(one);
+    }
+
+    private long statements(String uri) throws Exception {
+        statistics.clear();
+        mvc.perform(get(uri)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createRoutes(String street, String date, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            List<Long> parcelIds = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                parcelIds.add(create("/parcel", Map.of(
+                    "contentDescription", "Dokumenty",
+                    "senderAddress", "ul. Kwiatowa 5, 00-123 Warszawa",
+                    "recipientAddress", "ul. " + street + " 3, 00-003 Warszawa",
+                    "dispatchDate", date + "T08:00:00",
+                    "deliveryDate", date + "T16:00:00",
+                    "weight", 1.5,
+                    "price", 20.0,
+                    "clientId", 1)));
+            }
+            create("/route", Map.of(
+                "startLocation", "ul. " + street + " 1, 00-001 Warszawa",
+                "endLocation", "ul. " + street + " 2, 00-002 Warszawa",
+                "distance", 12.5,
+                "estimatedTime", 40,
+                "scheduleDate", date,
+                "stops", List.of("ul. " + street + " 3, 00-003 Warszawa", "ul. Boczna " + i + ", 00-004 Warszawa"),
+                "carId", 1 + i % 2,
+                "parcelIds", parcelIds));
+        }
+    }
+
+    private Long create(String uri, Map<String, Object> body) throws Exception {
+        String response = mvc.perform(post(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,133 @@
+package pl.polsl.courier.management.system.optimization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pl.polsl.courier.management.system.dto.CarAssignmentPlanDTO;
+import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+
+/**
+ * Committing a car assignment plan against the sample fleet, whose largest car carries 12
+ * tonnes. Every test works on its own day.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CarAssignmentSolverTest {
+
+    @Autowired private CarAssignmentSolver solver;
+    @Autowired private RoutePlanRepository routePlanRepo;
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void commitTakesTheCarFromRoutesLeftUnassigned() throws Exception {
+        LocalDate day = LocalDate.of(2033, 3, 1);
+        Long overloaded = createRoute(day, 1L, List.of(createParcel(day, 90_000)));
+        Long light = createRoute(day, 1L, List.of(createParcel(day, 2)));
+
+        List<CarAssignmentPlanDTO> plans = solver.solve(day, day);
+        assertThat(plans.get(0).getUnassignedRoutePlanIds()).containsExactly(overloaded);
+        solver.commit(day, day, plans);
+
+        assertThat(carOf(overloaded)).isNull();
+        assertThat(carOf(light)).isEqualTo(plans.get(0).getAssignments().get(0).getCarId());
+    }
+
+    @Test
+    void commitRejectsAPlanWhenARouteWasAddedMeanwhile() throws Exception {
+        LocalDate day = LocalDate.of(2033, 3, 2);
+        Long route = createRoute(day, 1L, List.of(createParcel(day, 2)));
+        List<CarAssignmentPlanDTO> plans = solver.solve(day, day);
+        Long added = createRoute(day, 2L, List.of());
+
+        assertConflict(day, plans);
+        assertThat(carOf(route)).isEqualTo(1L);
+        assertThat(carOf(added)).isEqualTo(2L);
+    }
+
+    @Test
+    void commitRejectsAPlanWhenARouteNoLongerFitsItsCar() throws Exception {
+        LocalDate day = LocalDate.of(2033, 3, 3);
+        Long route = createRoute(day, 2L, List.of(createParcel(day, 2)));
+        List<CarAssignmentPlanDTO> plans = solver.solve(day, day);
+        createParcel(day, 90_000, route);
+
+        assertThat(solver.solve(day, day).get(0).getUnassignedRoutePlanIds()).containsExactly(route);
+        assertConflict(day, plans);
+        assertThat(carOf(route)).isEqualTo(2L);
+    }
+
+    private void assertConflict(LocalDate day, List<CarAssignmentPlanDTO> plans) {
+        assertThatThrownBy(() -> solver.commit(day, day, plans))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    private Long carOf(Long routeId) {
+        RoutePlan route = routePlanRepo.findById(routeId).orElseThrow();
+        return route.getCar() != null ? route.getCar().getId() : null;
+    }
+
+    private Long createParcel(LocalDate day, double weight) throws Exception {
+        return createParcel(day, weight, null);
+    }
+
+    private Long createParcel(LocalDate day, double weight, Long routePlanId) throws Exception {
+        Map<String, Object> parcel = new HashMap<>(Map.of(
+            "contentDescription", "Ładunek",
+            "senderAddress", "ul. Kwiatowa 5, 00-123 Warszawa",
+            "recipientAddress", "ul. Polna 2, 00-321 Warszawa",
+            "dispatchDate", day + "T08:00:00",
+            "deliveryDate", day + "T16:00:00",
+            "weight", weight,
+            "price", 20.0,
+            "clientId", 1));
+        if (routePlanId != null) {
+            parcel.put("routePlanId", routePlanId);
+        }
+        return create("/parcel", parcel);
+    }
+
+    private Long createRoute(LocalDate day, Long carId, List<Long> parcelIds) throws Exception {
+        Map<String, Object> route = new HashMap<>(Map.of(
+            "startLocation", "ul. Polna 1, 00-001 Warszawa",
+            "endLocation", "ul. Polna 2, 00-002 Warszawa",
+            "distance", 10.0,
+            "estimatedTime", 60,
+            "scheduleDate", day.toString(),
+            "stops", List.of("ul. Polna 3, 00-003 Warszawa"),
+            "parcelIds", parcelIds));
+        if (carId != null) {
+            route.put("carId", carId);
+        }
+        return create("/route", route);
+    }
+
+    private Long create(String uri, Map<String, Object> body) throws Exception {
+        String response = mvc.perform(post(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
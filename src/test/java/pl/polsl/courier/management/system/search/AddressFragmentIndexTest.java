@@ -0,0 +1,228 @@
+package pl.polsl.courier.management.system.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import pl.polsl.courier.management.system.entity.RoutePlan;
+import pl.polsl.courier.management.system.entity.RouteStop;
+import pl.polsl.courier.management.system.repository.RouteAddresses;
+import pl.polsl.courier.management.system.repository.RoutePlanRepository;
+import pl.polsl.courier.management.system.repository.StopAddress;
+import pl.polsl.courier.management.system.search.AddressFragmentIndex.DocTable;
+import pl.polsl.courier.management.system.search.AddressFragmentIndex.Field;
+import pl.polsl.courier.management.system.search.AddressFragmentIndex.Postings;
+
+/**
+ * The index against a brute-force substring scan of the same routes, and its hash table and
+ * posting lists against the JDK collections, on random data from fixed seeds. Changes are
+ * applied outside a transaction, so they reach the index right away.
+ */
+class AddressFragmentIndexTest {
+
+    private static final String[] STREETS = { "Polna", "Kwiatowa", "Lipowa", "Mickiewicza", "Słoneczna" };
+    private static final String[] CITIES = { "Warszawa", "Kraków", "Gliwice", "Katowice" };
+    private static final String[] FRAGMENTS = { "ul. ", "Polna 1", "owa 2", "00-0", "Kraków", "ice",
+        "ewicza 7, 1", "Gdańsk", "ul. Lipowa 3" };
+
+    private final RoutePlanRepository repo = mock(RoutePlanRepository.class);
+    private final AddressFragmentIndex index = new AddressFragmentIndex();
+    private final Map<Long, String[]> routes = new TreeMap<>();
+
+    AddressFragmentIndexTest() {
+        ReflectionTestUtils.setField(index, "routePlanRepo", repo);
+    }
+
+    @Test
+    void findMatchesASubstringScanThroughUpdatesRemovalsAndCompaction() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (long id = 1; id <= 3000; id++) {
+            put(id, random);
+        }
+        assertMatchesScan();
+        // Enough tombstones for the segment to compact itself.
+        for (int i = 0; i < 4000; i++) {
+            long id = 1 + random.nextInt(3000);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                routes.remove(id);
+            } else {
+                put(id, random);
+            }
+        }
+        assertMatchesScan();
+    }
+
+    @Test
+    void findPagesThroughTheLowestRouteIds() {
+        SplittableRandom random = new SplittableRandom(11);
+        // Out of id order, so documents are not sorted by route id.
+        for (long id : random.ints(2000, 1, 5000).distinct().asLongStream().toArray()) {
+            put(id, random);
+        }
+        for (String fragment : FRAGMENTS) {
+            List<Long> all = scan(Field.STOP, fragment);
+            List<Long> paged = new ArrayList<>();
+            long after = 0;
+            List<Long> page;
+            do {
+                page = index.find(Field.STOP, fragment, after, 7);
+                paged.addAll(page);
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1);
+                }
+            } while (page.size() == 7);
+            assertThat(paged).as(fragment).isEqualTo(all);
+        }
+    }
+
+    @Test
+    void rebuildKeepsChangesCommittedWhileItLoads() {
+        when(repo.findAddressesAfter(anyLong(), any(Pageable.class))).thenAnswer(call -> {
+            long after = call.getArgument(0);
+            if (after > 0) {
+                return List.of();
+            }
+            // Committed while the database is read: route 2 is renamed, route 3 is deleted and
+            // route 4 is created, none of which the rows below show.
+            index.put(route(2, "ul. Nowa 2, 00-002 Gliwice", "ul. Nowa 3, 00-003 Gliwice"));
+            index.remove(3L);
+            index.put(route(4, "ul. Polna 4, 00-004 Kraków", "ul. Polna 5, 00-005 Kraków"));
+            return List.of(addresses(1, "ul. Polna 1, 00-001 Warszawa", "ul. Polna 2, 00-002 Warszawa"),
+                addresses(2, "ul. Stara 2, 00-002 Gliwice", "ul. Stara 3, 00-003 Gliwice"),
+                addresses(3, "ul. Polna 3, 00-003 Warszawa", "ul. Polna 4, 00-004 Warszawa"));
+        });
+        when(repo.findStopAddresses(anyLong(), anyLong())).thenReturn(List.<StopAddress>of());
+
+        index.rebuild();
+
+        assertThat(index.find(Field.START, "Polna", 0, 10)).containsExactly(1L, 4L);
+        assertThat(index.find(Field.START, "Nowa", 0, 10)).containsExactly(2L);
+        assertThat(index.find(Field.START, "Stara", 0, 10)).isEmpty();
+        // Changes after the rebuild go to the new segment only.
+        index.remove(1L);
+        assertThat(index.find(Field.START, "Polna", 0, 10)).containsExactly(4L);
+    }
+
+    @Test
+    void docTableMatchesAHashMap() {
+        SplittableRandom random = new SplittableRandom(3);
+        DocTable table = new DocTable();
+        Map<Long, Integer> expected = new HashMap<>();
+        // Few distinct keys spread over the whole long range, so probe runs collide and wrap.
+        long[] keys = random.longs(5000).toArray();
+        for (int i = 0; i < 500_000; i++) {
+            long key = keys[random.nextInt(keys.length)];
+            if (random.nextBoolean()) {
+                int doc = random.nextInt(1_000_000);
+                table.put(key, doc);
+                expected.put(key, doc);
+            } else {
+                assertThat(table.remove(key)).isEqualTo(expected.getOrDefault(key, -1));
+                expected.remove(key);
+            }
+        }
+        for (long key : keys) {
+            assertThat(table.remove(key)).isEqualTo(expected.getOrDefault(key, -1));
+            expected.remove(key);
+        }
+    }
+
+    @Test
+    void retainIntersectsAscendingLists() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int round = 0; round < 2000; round++) {
+            int bound = 1 + random.nextInt(5000);
+            int[] list = sortedSample(random, random.nextInt(300), bound);
+            int[] values = sortedSample(random, random.nextInt(300), bound);
+            Postings postings = new Postings();
+            Arrays.stream(list).forEach(postings::add);
+
+            int[] kept = values.clone();
+            int count = postings.retain(kept, kept.length);
+
+            int[] expected = Arrays.stream(values).filter(v -> Arrays.binarySearch(list, v) >= 0).toArray();
+            assertThat(Arrays.copyOf(kept, count)).isEqualTo(expected);
+        }
+    }
+
+    private void assertMatchesScan() {
+        for (Field field : Field.values()) {
+            for (String fragment : FRAGMENTS) {
+                assertThat(index.find(field, fragment, 0, Integer.MAX_VALUE / 2))
+                    .as("%s %s", field, fragment)
+                    .isEqualTo(scan(field, fragment));
+            }
+        }
+    }
+
+    private List<Long> scan(Field field, String fragment) {
+        List<Long> ids = new ArrayList<>();
+        routes.forEach((id, doc) -> {
+            boolean found = switch (field) {
+                case START -> doc[0].contains(fragment);
+                case END -> doc[1].contains(fragment);
+                case STOP -> Arrays.stream(doc, 2, doc.length).anyMatch(stop -> stop.contains(fragment));
+            };
+            if (found) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private void put(long id, SplittableRandom random) {
+        String[] doc = new String[2 + random.nextInt(4)];
+        for (int k = 0; k < doc.length; k++) {
+            doc[k] = "ul. " + STREETS[random.nextInt(STREETS.length)] + " " + (1 + random.nextInt(99))
+                + ", " + String.format("%02d-%03d", random.nextInt(100), random.nextInt(1000)) + " "
+                + CITIES[random.nextInt(CITIES.length)];
+        }
+        index.put(route(id, doc));
+        routes.put(id, doc);
+    }
+
+    private static RoutePlan route(long id, String... doc) {
+        RoutePlan route = new RoutePlan();
+        route.setId(id);
+        route.setStartLocation(doc[0]);
+        route.setEndLocation(doc[1]);
+        route.setStops(Arrays.stream(doc, 2, doc.length).map(RouteStop::of).toList());
+        return route;
+    }
+
+    private static RouteAddresses addresses(long id, String start, String end) {
+        return new RouteAddresses() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getStartLocation() {
+                return start;
+            }
+
+            public String getEndLocation() {
+                return end;
+            }
+        };
+    }
+
+    private static int[] sortedSample(SplittableRandom random, int size, int bound) {
+        return IntStream.generate(() -> random.nextInt(bound)).limit(size).sorted().distinct().toArray();
+    }
+}
@@ -0,0 +1,167 @@
+package pl.polsl.courier.management.system.tracking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * The journal with segments of three records, so a handful of events spans several segment
+ * files. Each journal is closed and reopened from the same directory to check recovery.
+ */
+class ParcelEventJournalTest {
+
+    private static final int RECORDS_PER_SEGMENT = 3;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 1, 8, 0);
+
+    @TempDir
+    private Path dir;
+
+    private final List<ParcelEventJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws InterruptedException {
+        for (ParcelEventJournal journal : opened) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void appendRollsOverToANewSegmentWhenOneIsFull() throws IOException {
+        ParcelEventJournal journal = open();
+        for (int i = 0; i < RECORDS_PER_SEGMENT; i++) {
+            journal.append(1, ParcelEventType.AT_HUB, START.plusMinutes(i));
+        }
+        assertThat(segmentFiles()).containsExactly("00000000.journal");
+
+        journal.append(1, ParcelEventType.AT_HUB, START.plusMinutes(RECORDS_PER_SEGMENT));
+        assertThat(segmentFiles()).containsExactly("00000000.journal", "00000001.journal");
+        assertThat(Files.size(dir.resolve("00000001.journal")))
+            .isEqualTo(RECORDS_PER_SEGMENT * ParcelEventJournal.RECORD_SIZE);
+    }
+
+    @Test
+    void eventsFollowTheBackwardChainAcrossSegments() throws InterruptedException {
+        ParcelEventJournal journal = open();
+        List<ParcelEvent> first = new ArrayList<>();
+        List<ParcelEvent> second = new ArrayList<>();
+        ParcelEventType[] types = ParcelEventType.values();
+        for (int i = 0; i < 7; i++) {
+            first.add(journal.append(1, types[i % types.length], START.plusMinutes(i)));
+            second.add(journal.append(2, types[(i + 1) % types.length], START.plusHours(i)));
+        }
+
+        assertThat(journal.events(1)).containsExactlyElementsOf(first);
+        assertThat(journal.events(2)).containsExactlyElementsOf(second);
+        assertThat(journal.events(3)).isEmpty();
+
+        reopen(journal);
+        ParcelEventJournal recovered = open();
+        assertThat(recovered.events(1)).containsExactlyElementsOf(first);
+        assertThat(recovered.events(2)).containsExactlyElementsOf(second);
+    }
+
+    // 0: checksum of a record whose body was written, 12: a byte of the parcel ID.
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 12 })
+    void recoveryStopsAtATornOrCorruptRecord(int corruptOffset) throws Exception {
+        ParcelEventJournal journal = open();
+        List<ParcelEvent> events = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            events.add(journal.append(1, ParcelEventType.AT_HUB, START.plusMinutes(i)));
+        }
+        reopen(journal);
+        // The fifth record, the second one in the second segment.
+        corrupt("00000001.journal", ParcelEventJournal.RECORD_SIZE + corruptOffset);
+
+        ParcelEventJournal recovered = open();
+        assertThat(recovered.events(1)).containsExactlyElementsOf(events.subList(0, 4));
+
+        // The sixth record was zeroed, so it does not come back behind a new append.
+        ParcelEvent delivered = recovered.append(1, ParcelEventType.DELIVERED, START.plusDays(1));
+        reopen(recovered);
+        List<ParcelEvent> expected = new ArrayList<>(events.subList(0, 4));
+        expected.add(delivered);
+        assertThat(open().events(1)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void failedForceFailsWaitingAndLaterAppends() {
+        ParcelEventJournal journal = new ParcelEventJournal() {
+            @Override
+            void force(long from, long to) {
+                throw new UncheckedIOException(new IOException("Input/output error"));
+            }
+        };
+        configure(journal);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            journal.open();
+            opened.add(journal);
+            for (int i = 0; i < 2; i++) {
+                assertThatThrownBy(() -> journal.append(1, ParcelEventType.PICKED_UP, START))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasCauseInstanceOf(UncheckedIOException.class);
+            }
+        });
+    }
+
+    private ParcelEventJournal open() {
+        ParcelEventJournal journal = new ParcelEventJournal();
+        configure(journal);
+        try {
+            journal.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        opened.add(journal);
+        return journal;
+    }
+
+    private void reopen(ParcelEventJournal journal) throws InterruptedException {
+        opened.remove(journal);
+        journal.close();
+    }
+
+    private void configure(ParcelEventJournal journal) {
+        ReflectionTestUtils.setField(journal, "dir", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSize",
+            DataSize.ofBytes(RECORDS_PER_SEGMENT * ParcelEventJournal.RECORD_SIZE));
+        ReflectionTestUtils.setField(journal, "sync", true);
+    }
+
+    private List<String> segmentFiles() throws IOException {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private void corrupt(String file, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir.resolve(file), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) ~b.get(0)).rewind();
+            channel.write(b, position);
+        }
+    }
+}